@@ -2,6 +2,8 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.6"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
+    id("org.graalvm.buildtools.native") version "0.10.6" apply false
 }
 
 group = "me.geon"
@@ -9,7 +11,7 @@ description = "ecs_be_prod"
 
 java {
     toolchain {
-        languageVersion = JavaLanguageVersion.of(17)
+        languageVersion = JavaLanguageVersion.of(providers.gradleProperty("javaVersion").getOrElse("17").toInt())
     }
 }
 
@@ -17,17 +19,126 @@ repositories {
     mavenCentral()
 }
 
+val loadTest: SourceSet by sourceSets.creating
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-webflux")
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("org.lz4:lz4-java:1.8.0")
     implementation("org.apache.commons:commons-pool2")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     implementation("io.github.cdimascio:dotenv-java:3.0.0")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.testcontainers:junit-jupiter:1.19.8")
     testImplementation("org.testcontainers:testcontainers:1.19.8")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    jmhImplementation("org.testcontainers:testcontainers:1.19.8")
+    "loadTestImplementation"("com.fasterxml.jackson.core:jackson-databind")
+    "loadTestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
+    "loadTestImplementation"("org.testcontainers:testcontainers:1.19.8")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+jmh {
+    jmhVersion = "1.37"
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    includes = listOf(providers.gradleProperty("jmhInclude").getOrElse(".*"))
+    jvmArgs = listOfNotNull(
+        providers.gradleProperty("redisHost").map { "-Dredis.host=$it" }.orNull,
+        providers.gradleProperty("redisPort").map { "-Dredis.port=$it" }.orNull,
+    )
+}
+
+// ./gradlew loadTest -PloadRate=2000 -PloadDuration=60s -PloadMix=get:70,set:20,delete:10
+// 결과는 build/reports/loadtest/results.json, 기준선은 src/loadTest/baseline.json (-PupdateBaseline 으로 갱신)
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs an open-model load test against the boot jar and compares it with the saved baseline."
+    val bootJar = tasks.named<org.springframework.boot.gradle.tasks.bundling.BootJar>("bootJar")
+    dependsOn(bootJar)
+    classpath = loadTest.runtimeClasspath
+    mainClass = "me.geon.ecs_be_prod.loadtest.LoadTest"
+    javaLauncher = javaToolchains.launcherFor(java.toolchain)
+    systemProperty("loadtest.jar", bootJar.get().archiveFile.get().asFile.absolutePath)
+    systemProperty("loadtest.baseline", file("src/loadTest/baseline.json").absolutePath)
+    systemProperty("loadtest.report-dir", layout.buildDirectory.dir("reports/loadtest").get().asFile.absolutePath)
+    mapOf(
+        "loadRate" to "loadtest.rate",
+        "loadDuration" to "loadtest.duration",
+        "loadWarmup" to "loadtest.warmup",
+        "loadMix" to "loadtest.mix",
+        "loadKeys" to "loadtest.keys",
+        "loadValueSize" to "loadtest.value-size",
+        "loadMaxInFlight" to "loadtest.max-in-flight",
+        "loadTolerance" to "loadtest.tolerance",
+        "loadAppArgs" to "loadtest.app-args",
+        "redisHost" to "redis.host",
+        "redisPort" to "redis.port",
+    ).forEach { (property, name) ->
+        providers.gradleProperty(property).orNull?.let { systemProperty(name, it) }
+    }
+    if (providers.gradleProperty("updateBaseline").isPresent) {
+        systemProperty("loadtest.update-baseline", "true")
+    }
+}
+
+// ./gradlew jfrReport -PjfrFile=redis.jfr
+// me.geon.redis.* JFR 이벤트를 연산별 단계(풀 대기, 직렬화, 왕복)와 응답 쓰기로 나눠 요약한다.
+tasks.register<JavaExec>("jfrReport") {
+    group = "verification"
+    description = "Summarizes the Redis JFR events in a recording by phase."
+    classpath = loadTest.runtimeClasspath
+    mainClass = "me.geon.ecs_be_prod.loadtest.JfrReport"
+    javaLauncher = javaToolchains.launcherFor(java.toolchain)
+    args(providers.gradleProperty("jfrFile").map { file(it).absolutePath }.getOrElse(""))
+}
+
+// -PfastStart: processAot 결과를 bootJar 에 포함하고 cdsArchive 로 AppCDS 아카이브를 만든다.
+// AOT 는 빈 조건(@ConditionalOnProperty, 프로파일)을 빌드 시점에 고정하므로
+// 실행 시 쓸 프로파일은 -PaotProfiles=reactive 처럼 빌드할 때 넘겨야 한다.
+if (providers.gradleProperty("fastStart").isPresent) {
+    apply(plugin = "org.graalvm.buildtools.native")
+
+    tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+        providers.gradleProperty("aotProfiles").orNull?.takeIf { it.isNotBlank() }?.let { args("--spring.profiles.active=$it") }
+    }
+
+    val bootJar = tasks.named<org.springframework.boot.gradle.tasks.bundling.BootJar>("bootJar")
+    val cdsDir = layout.buildDirectory.dir("cds")
+    val javaLauncher = javaToolchains.launcherFor(java.toolchain)
+
+    val extractBootJar by tasks.registering(Exec::class) {
+        dependsOn(bootJar)
+        inputs.file(bootJar.flatMap { it.archiveFile })
+        outputs.dir(cdsDir)
+        doFirst {
+            delete(cdsDir)
+            executable = javaLauncher.get().executablePath.asFile.absolutePath
+        }
+        args("-Djarmode=tools", "-jar", bootJar.get().archiveFile.get().asFile.absolutePath,
+            "extract", "--destination", cdsDir.get().asFile.absolutePath)
+    }
+
+    // 컨텍스트 refresh 직후 종료하는 학습 실행으로 로드된 클래스를 app.jsa 에 기록한다.
+    // Redis 에는 연결하지 않지만 REDIS_HOST/REDIS_PORT 플레이스홀더는 바인딩되어야 하므로 더미 값을 넘긴다.
+    // 실행: java -XX:SharedArchiveFile=build/cds/app.jsa -Dspring.aot.enabled=true -jar build/cds/<jar>
+    tasks.register<Exec>("cdsArchive") {
+        dependsOn(extractBootJar)
+        outputs.file(cdsDir.map { it.file("app.jsa") })
+        workingDir(cdsDir)
+        doFirst {
+            executable = javaLauncher.get().executablePath.asFile.absolutePath
+        }
+        args("-XX:ArchiveClassesAtExit=app.jsa", "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh",
+            "-jar", bootJar.get().archiveFile.get().asFile.name,
+            "--spring.data.redis.host=localhost", "--spring.data.redis.port=6379")
+    }
+}
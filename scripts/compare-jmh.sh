@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+#
+# JMH 결과를 기준선과 비교해 회귀가 있으면 실패
+#
+# 두 파일 모두 JMH JSON 포맷(build/reports/jmh/results.json)이며, 벤치마크 이름과 @Param 이 같은 항목끼리만 비교합니다.
+# 처리량(ops/시간) 단위는 낮아질 때, 시간/op 단위는 높아질 때를 회귀로 봅니다.
+#
+# 사용법:
+#   scripts/compare-jmh.sh <기준선.json> <결과.json> [허용 회귀(%)]
+#   예시: scripts/compare-jmh.sh baseline/results.json build/reports/jmh/results.json 15
+set -euo pipefail
+
+BASELINE=$1
+CURRENT=$2
+THRESHOLD=${3:-15}
+
+ROWS=$(jq -r -n --slurpfile base "$BASELINE" --slurpfile current "$CURRENT" --argjson threshold "$THRESHOLD" '
+  def id: (.benchmark | split(".") | .[-2:] | join("."))
+          + ((.params // {}) | to_entries | map(" \(.key)=\(.value)") | join(""));
+  ($base[0] | map({key: id, value: .primaryMetric}) | from_entries) as $baseline
+  | $current[0][]
+  | id as $id
+  | select($baseline[$id] != null)
+  | $baseline[$id] as $before
+  | .primaryMetric as $after
+  | (if ($after.scoreUnit | test("^ops/")) then ($before.score - $after.score) else ($after.score - $before.score) end
+     / $before.score * 100) as $regression
+  | [$id, ($before.score * 100 | round / 100), ($after.score * 100 | round / 100), $after.scoreUnit,
+     ($regression * 10 | round / 10), (if $regression > $threshold then "REGRESSED" else "ok" end)]
+  | @tsv')
+
+echo "| Benchmark | Baseline | Current | Unit | Regression (%) | |"
+echo "|---|---|---|---|---|---|"
+if [ -z "$ROWS" ]; then
+  echo "기준선과 겹치는 벤치마크가 없습니다." >&2
+  exit 0
+fi
+echo "$ROWS" | awk -F'\t' '{ printf "| %s | %s | %s | %s | %s | %s |\n", $1, $2, $3, $4, $5, $6 }'
+
+if echo "$ROWS" | grep -q 'REGRESSED$'; then
+  echo "허용 회귀 ${THRESHOLD}% 를 넘은 벤치마크가 있습니다." >&2
+  exit 1
+fi
@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+#
+# 플랫폼 스레드(기본) vs 가상 스레드(virtual-threads 프로파일) 처리량 비교
+#
+# 사전 준비:
+#   ./gradlew bootJar -PjavaVersion=21
+#   docker compose -f docker-redis.yml up -d
+#   hey 설치 (https://github.com/rakyll/hey)
+#
+# 사용법:
+#   scripts/compare-thread-modes.sh [동시접속수] [측정시간]
+#   예시: scripts/compare-thread-modes.sh 2000 30s
+set -euo pipefail
+
+CONCURRENCY=${1:-1000}
+DURATION=${2:-30s}
+PORT=${PORT:-8080}
+JAR=$(ls build/libs/*.jar | grep -v plain | head -n 1)
+RESULT_DIR=build/reports/thread-modes
+mkdir -p "$RESULT_DIR"
+
+export REDIS_HOST=${REDIS_HOST:-localhost}
+export REDIS_PORT=${REDIS_PORT:-6379}
+
+run_mode() {
+  local mode=$1
+  local profile=$2
+
+  java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profile" > "$RESULT_DIR/$mode.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+  curl -sf -X POST "http://localhost:$PORT/api/redis/set?key=bench&value=value" > /dev/null
+
+  # 워밍업 후 측정
+  hey -z 10s -c 50 "http://localhost:$PORT/api/redis/get?key=bench" > /dev/null
+  hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:$PORT/api/redis/get?key=bench" > "$RESULT_DIR/$mode.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
+
+printf "%-10s %15s %12s %12s\n" "mode" "requests/sec" "p50" "p99"
+for mode in platform virtual; do
+  rps=$(awk '/Requests\/sec/ {print $2}' "$RESULT_DIR/$mode.txt")
+  p50=$(awk '/50% in/ {print $3 $4}' "$RESULT_DIR/$mode.txt")
+  p99=$(awk '/99% in/ {print $3 $4}' "$RESULT_DIR/$mode.txt")
+  printf "%-10s %15s %12s %12s\n" "$mode" "$rps" "$p50" "$p99"
+done
@@ -0,0 +1,24 @@
+#!/bin/sh
+#
+# 컨테이너 실행 스크립트 (Dockerfile ENTRYPOINT)
+#
+# FAST_START 이미지(extracted/app.jsa 가 있음)는 AOT 가 빌드 시점의 프로파일과 빈 조건으로 고정되어 있으므로,
+# 실행 환경의 SPRING_PROFILES_ACTIVE / NEAR_CACHE_* 가 빌드 인자와 다르면 조용히 다른 구성으로 뜨는 대신 바로 종료합니다.
+# 환경 변수로 넘긴 값만 비교하며, 명령행 인자나 SPRING_APPLICATION_JSON 으로 바꾼 값은 확인하지 않습니다.
+set -e
+
+require_baked() {
+  if [ "$2" != "$3" ]; then
+    echo "This FAST_START image was built with $1='$2' but is running with '$3'." >&2
+    echo "Rebuild with --build-arg matching the runtime value, or use an image built without FAST_START." >&2
+    exit 1
+  fi
+}
+
+if [ -f extracted/app.jsa ]; then
+  require_baked SPRING_PROFILES_ACTIVE "$AOT_PROFILES" "${SPRING_PROFILES_ACTIVE:-}"
+  require_baked NEAR_CACHE_ENABLED "$AOT_NEAR_CACHE_ENABLED" "${NEAR_CACHE_ENABLED:-false}"
+  require_baked NEAR_CACHE_INVALIDATION "$AOT_NEAR_CACHE_INVALIDATION" "${NEAR_CACHE_INVALIDATION:-tracking}"
+  exec java -XX:SharedArchiveFile=extracted/app.jsa -Dspring.aot.enabled=true -jar extracted/app.jar "$@"
+fi
+exec java -jar app.jar "$@"
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+#
+# 기본 JAR vs 빠른 시작 모드(AOT + AppCDS) 의 첫 요청까지 걸리는 시간 비교
+#
+# 사전 준비:
+#   ./gradlew cdsArchive -PfastStart
+#   docker compose -f docker-redis.yml up -d
+#
+# 사용법:
+#   scripts/measure-startup.sh [반복횟수]
+#   예시: scripts/measure-startup.sh 5
+#
+# 프로세스 실행 시점부터 /api/redis/get 이 처음 200 을 돌려줄 때까지의 시간(ms)을 잰다.
+# -PfastStart 로 빌드한 JAR는 두 모드 모두에 쓰이므로 AOT/CDS 옵션 유무만 다르다.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+CDS_DIR=build/cds
+JAR=$(ls build/libs/*.jar | grep -v plain | head -n 1)
+RESULT_DIR=$(pwd)/build/reports/startup
+mkdir -p "$RESULT_DIR"
+
+export REDIS_HOST=${REDIS_HOST:-localhost}
+export REDIS_PORT=${REDIS_PORT:-6379}
+
+if [ ! -f "$CDS_DIR/app.jsa" ]; then
+  echo "CDS 아카이브가 없습니다. 먼저 ./gradlew cdsArchive -PfastStart 를 실행하세요." >&2
+  exit 1
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+measure() {
+  local mode=$1
+  local dir=$2
+  shift 2
+
+  local start
+  start=$(now_ms)
+  (cd "$dir" && exec "$@" --server.port="$PORT") > "$RESULT_DIR/$mode.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+
+  until curl -sf "http://localhost:$PORT/api/redis/get?key=startup" > /dev/null; do sleep 0.02; done
+  echo $(( $(now_ms) - start )) >> "$RESULT_DIR/$mode.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+rm -f "$RESULT_DIR"/*.txt
+for _ in $(seq "$RUNS"); do
+  measure default . java -jar "$JAR"
+  # CDS 아카이브는 학습 실행과 같은 디렉토리, 같은 JAR 경로로 실행해야 적용된다
+  measure fast-start "$CDS_DIR" java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar "$(basename "$JAR")"
+done
+
+printf "%-12s %10s %10s %10s\n" "mode" "min(ms)" "median(ms)" "max(ms)"
+for mode in default fast-start; do
+  sort -n "$RESULT_DIR/$mode.txt" | awk -v mode="$mode" '
+    { v[NR] = $1 }
+    END { printf "%-12s %10d %10d %10d\n", mode, v[1], v[int((NR + 1) / 2)], v[NR] }'
+done
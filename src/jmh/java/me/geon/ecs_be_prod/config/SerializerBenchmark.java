@@ -0,0 +1,83 @@
+package me.geon.ecs_be_prod.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"json", "compact"})
+    private String format;
+
+    @Param({"small", "medium", "large"})
+    private String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        serializer = "compact".equals(format) ? new CompactRedisSerializer(json, 1024, Map.of()) : json;
+        value = payloadOf(payload);
+        encoded = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    static Object payloadOf(String size) {
+        return switch (size) {
+            case "small" -> "value-0001";
+            case "medium" -> record(0, 20);
+            case "large" -> {
+                List<Object> records = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    records.add(record(i, 20));
+                }
+                yield Map.of("records", records);
+            }
+            default -> throw new IllegalArgumentException("Unknown payload size " + size);
+        };
+    }
+
+    private static Map<String, Object> record(int id, int fields) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", id);
+        for (int i = 0; i < fields; i++) {
+            record.put("field" + i, "value-" + id + "-" + i);
+        }
+        return record;
+    }
+}
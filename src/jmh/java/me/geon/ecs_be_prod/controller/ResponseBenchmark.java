@@ -0,0 +1,83 @@
+package me.geon.ecs_be_prod.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+    private Map<String, Object> batchValues;
+    private byte[] storedLargeValue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        batchValues = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            batchValues.put("key-" + i, i % 10 == 0 ? null : "value-" + i);
+        }
+        storedLargeValue = serializer.serialize("x".repeat(64 * 1024));
+    }
+
+    @Benchmark
+    public Map<String, Object> getResponse() {
+        return RedisResponses.get("key", "value");
+    }
+
+    @Benchmark
+    public Map<String, Object> ttlResponse() {
+        return RedisResponses.ttl("key", 42L);
+    }
+
+    @Benchmark
+    public Map<String, Object> mgetResponse() {
+        return RedisResponses.mget(batchValues);
+    }
+
+    @Benchmark
+    public byte[] getResponseAsJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(RedisResponses.get("key", "value"));
+    }
+
+    @Benchmark
+    public byte[] mgetResponseAsJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(RedisResponses.mget(batchValues));
+    }
+
+    @Benchmark
+    public byte[] largeGetDecoded() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(RedisResponses.get("key", serializer.deserialize(storedLargeValue)));
+    }
+
+    @Benchmark
+    public int largeGetRaw() throws IOException {
+        byte[] escapedKey = RedisResponses.escapeKey("key");
+        ByteArrayOutputStream out = new ByteArrayOutputStream(RedisResponses.rawGetLength(escapedKey, storedLargeValue));
+        RedisResponses.writeRawGet(out, escapedKey, storedLargeValue);
+        return out.size();
+    }
+}
@@ -0,0 +1,70 @@
+package me.geon.ecs_be_prod.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.geon.ecs_be_prod.cache.NearCache;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.config.RedisConfig;
+import me.geon.ecs_be_prod.limit.AdaptiveConcurrencyLimiter;
+import me.geon.ecs_be_prod.metrics.HotKeyTracker;
+import me.geon.ecs_be_prod.metrics.RedisMetrics;
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Wires a {@link RedisService} by hand for benchmarks. Uses the Redis at {@code -Dredis.host}/{@code -Dredis.port}
+ * when given, otherwise starts a Testcontainers Redis.
+ */
+final class BenchmarkRedis implements AutoCloseable {
+
+    private final GenericContainer<?> container;
+    private final LettuceConnectionFactory connectionFactory;
+    private final BucketStore buckets;
+    private final WriteBehindQueue writeBehind;
+    final RedisTemplate<String, Object> redisTemplate;
+    final RedisService redisService;
+
+    BenchmarkRedis(AppRedisProperties properties) {
+        String host = System.getProperty("redis.host");
+        int port = Integer.getInteger("redis.port", 6379);
+        if (host == null) {
+            container = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+            container.start();
+            host = container.getHost();
+            port = container.getFirstMappedPort();
+        } else {
+            container = null;
+        }
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+
+        RedisConfig redisConfig = new RedisConfig();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        redisTemplate = redisConfig.redisTemplate(connectionFactory,
+                redisConfig.redisValueSerializer(properties, meterRegistry));
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        NearCache nearCache = new NearCache(properties, stringRedisTemplate, meterRegistry);
+        SingleFlight singleFlight = new SingleFlight(properties, meterRegistry);
+        RedisShards shards = new RedisShards(redisTemplate);
+        buckets = new BucketStore(properties, shards);
+        writeBehind = new WriteBehindQueue(properties, shards, buckets, nearCache, meterRegistry);
+        redisService = new RedisService(shards, nearCache, singleFlight, writeBehind, buckets,
+                new RedisMetrics(meterRegistry), new HotKeyTracker(properties),
+                new AdaptiveConcurrencyLimiter(properties, meterRegistry), properties);
+    }
+
+    @Override
+    public void close() throws Exception {
+        writeBehind.destroy();
+        buckets.destroy();
+        connectionFactory.destroy();
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package me.geon.ecs_be_prod.service;
+
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.RedisCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes {@code keys} small values once and reports the growth of {@code used_memory} per key as the
+ * {@code bytesPerKey} counter, for the plain layout and for {@link BucketStore} buckets of about 100 fields.
+ * Runs against redis:7-alpine (emulated field TTL) unless {@code -Dredis.host} points at a 7.4+ server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BucketMemoryBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int FIELDS_PER_BUCKET = 100;
+
+    @Param({"plain", "buckets"})
+    private String layout;
+
+    @Param({"200000"})
+    private int keys;
+
+    @Param({"32"})
+    private int valueSize;
+
+    @Param({"0", "3600"})
+    private long ttlSeconds;
+
+    private BenchmarkRedis redis;
+    private List<List<KeyValueEntry>> batches;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memory {
+
+        public double bytesPerKey;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getSerializer().setFormat(AppRedisProperties.SerializerFormat.COMPACT);
+        properties.getBuckets().setEnabled(layout.equals("buckets"));
+        properties.getBuckets().setCount(Math.max(1, keys / FIELDS_PER_BUCKET));
+        redis = new BenchmarkRedis(properties);
+
+        String value = "v".repeat(valueSize);
+        batches = new ArrayList<>();
+        for (int from = 0; from < keys; from += BATCH_SIZE) {
+            List<KeyValueEntry> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(keys, from + BATCH_SIZE); i++) {
+                batch.add(new KeyValueEntry("user:session:" + i, value, ttlSeconds > 0 ? ttlSeconds : null));
+            }
+            batches.add(batch);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void flush() {
+        redis.redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        redis.close();
+    }
+
+    @Benchmark
+    public void write(Memory memory) {
+        long before = usedMemory();
+        batches.forEach(redis.redisService::setValues);
+        memory.bytesPerKey = (usedMemory() - before) / (double) keys;
+    }
+
+    private long usedMemory() {
+        Properties info = redis.redisTemplate.execute(
+                (RedisCallback<Properties>) connection -> connection.serverCommands().info("memory"));
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+}
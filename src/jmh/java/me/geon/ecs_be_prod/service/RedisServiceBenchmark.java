@@ -0,0 +1,99 @@
+package me.geon.ecs_be_prod.service;
+
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RedisServiceBenchmark {
+
+    @Param({"json", "compact"})
+    private String format;
+
+    private static final int BATCH_SIZE = 100;
+
+    private BenchmarkRedis redis;
+    private List<String> keys;
+    private List<KeyValueEntry> entries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getSerializer().setFormat(AppRedisProperties.SerializerFormat.valueOf(format.toUpperCase()));
+        properties.getSingleFlight().setEnabled(false);
+        redis = new BenchmarkRedis(properties);
+
+        keys = new ArrayList<>();
+        entries = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            keys.add("bench:" + i);
+            entries.add(new KeyValueEntry("bench:" + i, "value-" + i, null));
+        }
+        redis.redisService.setValues(entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        redis.close();
+    }
+
+    @Benchmark
+    public Object get() {
+        return redis.redisService.getValue("bench:0");
+    }
+
+    @Benchmark
+    public void set() {
+        redis.redisService.setValue("bench:set", "value");
+    }
+
+    @Benchmark
+    public Boolean delete() {
+        return redis.redisService.deleteValue("bench:missing");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void getLoop(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(redis.redisService.getValue(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Map<String, Object> getPipelined() {
+        return redis.redisService.getValues(keys);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Map<String, Boolean> setPipelined() {
+        return redis.redisService.setValues(entries);
+    }
+}
@@ -0,0 +1,49 @@
+package me.geon.ecs_be_prod.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code RedisController} endpoints the load test drives, one request per key.
+ */
+enum Endpoint {
+
+    SET("set"),
+    GET("get"),
+    EXISTS("exists"),
+    TTL("ttl"),
+    DELETE("delete");
+
+    private final String path;
+
+    Endpoint(String path) {
+        this.path = path;
+    }
+
+    String id() {
+        return path;
+    }
+
+    static Endpoint of(String id) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.path.equals(id)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint '" + id + "', expected set, get, exists, ttl or delete");
+    }
+
+    HttpRequest request(URI base, String key, String value) {
+        String query = "?key=" + URLEncoder.encode(key, StandardCharsets.UTF_8);
+        return switch (this) {
+            case SET -> HttpRequest.newBuilder(base.resolve(path + query
+                            + "&value=" + URLEncoder.encode(value, StandardCharsets.UTF_8)))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case DELETE -> HttpRequest.newBuilder(base.resolve(path + query)).DELETE().build();
+            default -> HttpRequest.newBuilder(base.resolve(path + query)).GET().build();
+        };
+    }
+}
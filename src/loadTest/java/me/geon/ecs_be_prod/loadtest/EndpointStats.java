@@ -0,0 +1,54 @@
+package me.geon.ecs_be_prod.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of one endpoint, measured from the intended send time of each request rather than the time it was
+ * actually sent. A stalled server therefore shows up in every request that should have gone out during the
+ * stall, instead of only the one that was waiting (coordinated omission).
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(long intendedNanos, long completedNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos);
+        latencies.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * A request that was never sent because {@code max-in-flight} requests were outstanding.
+     */
+    void drop() {
+        dropped.increment();
+    }
+
+    LoadTestReport.EndpointResult result(double seconds) {
+        long completed = latencies.getTotalCount();
+        long total = completed + dropped.sum();
+        long failed = errors.sum() + dropped.sum();
+        return new LoadTestReport.EndpointResult(
+                total,
+                (completed - errors.sum()) / seconds,
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()),
+                total == 0 ? 0 : (double) failed / total);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
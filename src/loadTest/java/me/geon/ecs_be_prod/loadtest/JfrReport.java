@@ -0,0 +1,156 @@
+package me.geon.ecs_be_prod.loadtest;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarizes the Redis events in a JFR recording: per operation, where the time went (pool wait, serialization,
+ * round trip), then response writing per endpoint and the slowest individual operations.
+ * <p>
+ * Events below their 1 ms threshold are not in the recording, so percentiles describe the slow tail, not all
+ * traffic.
+ */
+public final class JfrReport {
+
+    private static final String OPERATION = "me.geon.redis.Operation";
+    private static final String POOL_WAIT = "me.geon.redis.PoolWait";
+    private static final String RESPONSE_WRITE = "me.geon.redis.ResponseWrite";
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SLOWEST = 10;
+
+    private JfrReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 || !Files.isRegularFile(Path.of(args[0]))) {
+            System.err.println("Usage: JfrReport <recording.jfr>");
+            System.exit(2);
+        }
+
+        Map<String, Phases> operations = new TreeMap<>();
+        Map<String, Phases> responses = new TreeMap<>();
+        Phases poolWaits = new Phases();
+        PriorityQueue<Slow> slowest = new PriorityQueue<>(Comparator.comparingLong(Slow::total));
+
+        try (RecordingFile recording = new RecordingFile(Path.of(args[0]))) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case OPERATION -> {
+                        String operation = event.getString("operation");
+                        Phases phases = operations.computeIfAbsent(operation, name -> new Phases());
+                        long total = event.getDuration().toNanos();
+                        long pool = event.getDuration("poolWait").toNanos();
+                        long serialization = event.getDuration("serialization").toNanos();
+                        long roundTrip = event.getDuration("roundTrip").toNanos();
+                        phases.record(total, event.getLong("payloadBytes"), pool, serialization, roundTrip);
+                        slowest.add(new Slow(operation, event.getInt("keyHash"), event.getString("outcome"),
+                                total, pool, serialization, roundTrip));
+                        if (slowest.size() > SLOWEST) {
+                            slowest.poll();
+                        }
+                    }
+                    case POOL_WAIT -> poolWaits.record(event.getDuration().toNanos(), 0, 0, 0, 0);
+                    case RESPONSE_WRITE -> responses
+                            .computeIfAbsent(event.getString("endpoint") + " " + event.getInt("status"), name -> new Phases())
+                            .record(event.getDuration().toNanos(), event.getLong("bytes"), 0, 0, 0);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        if (operations.isEmpty() && responses.isEmpty()) {
+            System.out.println("No Redis events in " + args[0] + "; was the recording started with them enabled?");
+            return;
+        }
+
+        System.out.println("Redis operations (ms)");
+        System.out.printf("%-14s %8s %10s %21s %21s %21s %21s%n", "operation", "count", "avg bytes",
+                "total p50/p99/max", "pool p50/p99/max", "serde p50/p99/max", "redis p50/p99/max");
+        operations.forEach((operation, phases) -> System.out.printf("%-14s %8d %10d %21s %21s %21s %21s%n",
+                operation, phases.count(), phases.averageBytes(), summary(phases.total), summary(phases.pool),
+                summary(phases.serialization), summary(phases.roundTrip)));
+        if (poolWaits.count() > 0) {
+            System.out.printf("%nPool waits over threshold: %d, p50/p99/max %s ms%n", poolWaits.count(), summary(poolWaits.total));
+        }
+
+        if (!responses.isEmpty()) {
+            System.out.println();
+            System.out.println("Response writes (ms)");
+            System.out.printf("%-20s %8s %10s %21s%n", "endpoint status", "count", "avg bytes", "p50/p99/max");
+            responses.forEach((endpoint, phases) -> System.out.printf("%-20s %8d %10d %21s%n",
+                    endpoint, phases.count(), phases.averageBytes(), summary(phases.total)));
+        }
+
+        if (!slowest.isEmpty()) {
+            System.out.println();
+            System.out.println("Slowest operations (ms)");
+            System.out.printf("%-14s %12s %8s %9s %9s %9s %9s%n", "operation", "key hash", "outcome", "total", "pool", "serde", "redis");
+            List<Slow> sorted = new ArrayList<>(slowest);
+            sorted.sort(Comparator.comparingLong(Slow::total).reversed());
+            sorted.forEach(slow -> System.out.printf("%-14s %12d %8s %9.2f %9.2f %9.2f %9.2f%n",
+                    slow.operation(), slow.keyHash(), slow.outcome(), millis(slow.total()), millis(slow.pool()),
+                    millis(slow.serialization()), millis(slow.roundTrip())));
+        }
+    }
+
+    private static String summary(Histogram histogram) {
+        return String.format("%.1f/%.1f/%.1f", histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Phases {
+
+        private final Histogram total = histogram();
+        private final Histogram pool = histogram();
+        private final Histogram serialization = histogram();
+        private final Histogram roundTrip = histogram();
+        private long bytes;
+
+        void record(long totalNanos, long payloadBytes, long poolNanos, long serializationNanos, long roundTripNanos) {
+            record(total, totalNanos);
+            record(pool, poolNanos);
+            record(serialization, serializationNanos);
+            record(roundTrip, roundTripNanos);
+            bytes += payloadBytes;
+        }
+
+        long count() {
+            return total.getTotalCount();
+        }
+
+        long averageBytes() {
+            return count() == 0 ? 0 : bytes / count();
+        }
+
+        private static Histogram histogram() {
+            return new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        }
+
+        private static void record(Histogram histogram, long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            histogram.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        }
+    }
+
+    private record Slow(String operation, int keyHash, String outcome,
+                        long total, long pool, long serialization, long roundTrip) {
+    }
+}
@@ -0,0 +1,189 @@
+package me.geon.ecs_be_prod.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Starts the application jar against Redis at {@code -Dredis.host}/{@code -Dredis.port}, or a Testcontainers Redis
+ * when none is given, and drives it with {@link OpenLoadGenerator}. Writes {@code results.json}, prints a summary
+ * and exits with status 1 when the run regressed past the saved baseline.
+ * <p>
+ * The application runs in its own JVM so the load generator does not compete with it for heap or GC.
+ */
+public final class LoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final int PRELOAD_BATCH = 500;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(settings.reportDir());
+
+        String redisHost = System.getProperty("redis.host");
+        int redisPort = Integer.getInteger("redis.port", 6379);
+        GenericContainer<?> container = null;
+        if (redisHost == null) {
+            container = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+            container.start();
+            redisHost = container.getHost();
+            redisPort = container.getFirstMappedPort();
+        }
+
+        int port = freePort();
+        Process app = startApp(settings, port, redisHost, redisPort);
+        LoadTestReport report;
+        try {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            URI base = URI.create("http://localhost:" + port + "/api/redis/");
+            awaitReady(client, app, port);
+            preload(client, base, settings, objectMapper);
+
+            OpenLoadGenerator generator = new OpenLoadGenerator(client, base, settings);
+            System.out.printf("Warming up for %ds at %.0f req/s%n", settings.warmup().toSeconds(), settings.rate());
+            generator.run(settings.warmup());
+            System.out.printf("Measuring for %ds at %.0f req/s%n", settings.duration().toSeconds(), settings.rate());
+            Map<Endpoint, EndpointStats> stats = generator.run(settings.duration());
+            report = report(settings, stats);
+        } finally {
+            app.destroy();
+            app.waitFor();
+            if (container != null) {
+                container.stop();
+            }
+        }
+
+        objectMapper.writeValue(settings.reportDir().resolve("results.json").toFile(), report);
+        print(report);
+        System.exit(checkBaseline(settings, report, objectMapper) ? 0 : 1);
+    }
+
+    private static Process startApp(LoadTestSettings settings, int port, String redisHost, int redisPort) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>(List.of(java, "-jar", settings.jar().toString(),
+                "--server.port=" + port,
+                "--spring.data.redis.host=" + redisHost,
+                "--spring.data.redis.port=" + redisPort));
+        command.addAll(settings.appArgs());
+
+        Path log = settings.reportDir().resolve("app.log");
+        System.out.println("Starting " + settings.jar().getFileName() + " on port " + port + ", log at " + log);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void awaitReady(HttpClient client, Process app, int port) throws Exception {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + app.exitValue() + " during startup");
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Application not ready after " + STARTUP_TIMEOUT.toSeconds() + "s");
+    }
+
+    /**
+     * Writes every key once through {@code /mset} so reads hit existing keys from the first request.
+     */
+    private static void preload(HttpClient client, URI base, LoadTestSettings settings, ObjectMapper objectMapper) throws Exception {
+        String value = "v".repeat(settings.valueSize());
+        for (int from = 0; from < settings.keys(); from += PRELOAD_BATCH) {
+            List<Map<String, Object>> entries = new ArrayList<>(PRELOAD_BATCH);
+            for (int i = from; i < Math.min(settings.keys(), from + PRELOAD_BATCH); i++) {
+                entries.add(Map.of("key", "load:" + i, "value", value));
+            }
+            HttpRequest request = HttpRequest.newBuilder(base.resolve("mset"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(entries)))
+                    .build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 200) {
+                throw new IllegalStateException("Preload failed with HTTP " + status);
+            }
+        }
+    }
+
+    private static LoadTestReport report(LoadTestSettings settings, Map<Endpoint, EndpointStats> stats) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        Map<String, LoadTestReport.EndpointResult> endpoints = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> endpoints.put(endpoint.id(), endpointStats.result(seconds)));
+        String mix = settings.mix().entrySet().stream()
+                .map(entry -> entry.getKey().id() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+        return new LoadTestReport(settings.rate(), settings.duration().toSeconds(), mix, endpoints);
+    }
+
+    private static void print(LoadTestReport report) {
+        System.out.printf("%-8s %10s %12s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)", "errors");
+        report.endpoints().forEach((endpoint, result) -> System.out.printf(
+                "%-8s %10d %12.1f %10.2f %10.2f %10.2f %10.2f %7.3f%%%n",
+                endpoint, result.requests(), result.throughput(), result.p50Millis(), result.p99Millis(),
+                result.p999Millis(), result.maxMillis(), result.errorRate() * 100));
+    }
+
+    private static boolean checkBaseline(LoadTestSettings settings, LoadTestReport report, ObjectMapper objectMapper) throws IOException {
+        Path baselineFile = settings.baseline();
+        if (settings.updateBaseline()) {
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            objectMapper.writeValue(baselineFile.toFile(), report);
+            System.out.println("Baseline updated: " + baselineFile);
+            return true;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + "; run with -PupdateBaseline to save one");
+            return true;
+        }
+
+        LoadTestReport baseline = objectMapper.readValue(baselineFile.toFile(), LoadTestReport.class);
+        if (!report.comparableTo(baseline)) {
+            System.out.printf("Baseline was recorded at %.0f req/s with mix %s; not comparing%n", baseline.rate(), baseline.mix());
+            return true;
+        }
+        List<String> regressions = report.regressionsAgainst(baseline, settings.tolerance());
+        if (regressions.isEmpty()) {
+            System.out.printf("No regression against %s (tolerance %.0f%%)%n", baselineFile, settings.tolerance() * 100);
+            return true;
+        }
+        System.out.println("Regressions against " + baselineFile + ":");
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        return false;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
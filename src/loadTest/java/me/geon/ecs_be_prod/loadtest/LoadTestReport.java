@@ -0,0 +1,63 @@
+package me.geon.ecs_be_prod.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of one run, written to {@code results.json} and used as the saved baseline.
+ */
+record LoadTestReport(double rate, long durationSeconds, String mix, Map<String, EndpointResult> endpoints) {
+
+    /**
+     * Latency differences below this are treated as noise, so sub-millisecond baselines do not fail on jitter.
+     */
+    private static final double LATENCY_FLOOR_MILLIS = 1.0;
+    private static final double ERROR_RATE_FLOOR = 0.001;
+
+    record EndpointResult(long requests,
+                          double throughput,
+                          double p50Millis,
+                          double p99Millis,
+                          double p999Millis,
+                          double maxMillis,
+                          double errorRate) {
+    }
+
+    boolean comparableTo(LoadTestReport baseline) {
+        return rate == baseline.rate && mix.equals(baseline.mix);
+    }
+
+    /**
+     * Throughput, p99, p99.9 and error rate per endpoint that are worse than the baseline by more than
+     * {@code tolerance} (a fraction, e.g. 0.2 for 20%).
+     */
+    List<String> regressionsAgainst(LoadTestReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        baseline.endpoints.forEach((endpoint, expected) -> {
+            EndpointResult actual = endpoints.get(endpoint);
+            if (actual == null) {
+                regressions.add(endpoint + ": missing from this run");
+                return;
+            }
+            if (actual.throughput < expected.throughput * (1 - tolerance)) {
+                regressions.add(String.format("%s: throughput %.1f/s < baseline %.1f/s",
+                        endpoint, actual.throughput, expected.throughput));
+            }
+            latency(regressions, endpoint, "p99", actual.p99Millis, expected.p99Millis, tolerance);
+            latency(regressions, endpoint, "p99.9", actual.p999Millis, expected.p999Millis, tolerance);
+            if (actual.errorRate > expected.errorRate * (1 + tolerance) + ERROR_RATE_FLOOR) {
+                regressions.add(String.format("%s: error rate %.3f%% > baseline %.3f%%",
+                        endpoint, actual.errorRate * 100, expected.errorRate * 100));
+            }
+        });
+        return regressions;
+    }
+
+    private static void latency(List<String> regressions, String endpoint, String name,
+                                double actual, double expected, double tolerance) {
+        if (actual > expected * (1 + tolerance) && actual - expected > LATENCY_FLOOR_MILLIS) {
+            regressions.add(String.format("%s: %s %.2f ms > baseline %.2f ms", endpoint, name, actual, expected));
+        }
+    }
+}
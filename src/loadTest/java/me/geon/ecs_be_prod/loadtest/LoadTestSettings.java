@@ -0,0 +1,104 @@
+package me.geon.ecs_be_prod.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from the {@code loadtest.*} system properties the Gradle task sets.
+ */
+record LoadTestSettings(double rate,
+                        Duration duration,
+                        Duration warmup,
+                        Map<Endpoint, Integer> mix,
+                        int keys,
+                        int valueSize,
+                        int maxInFlight,
+                        double tolerance,
+                        boolean updateBaseline,
+                        Path jar,
+                        List<String> appArgs,
+                        Path baseline,
+                        Path reportDir) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Double.parseDouble(System.getProperty("loadtest.rate", "1000")),
+                duration(System.getProperty("loadtest.duration", "30s")),
+                duration(System.getProperty("loadtest.warmup", "10s")),
+                mix(System.getProperty("loadtest.mix", "get:60,set:20,exists:10,ttl:5,delete:5")),
+                Integer.getInteger("loadtest.keys", 10_000),
+                Integer.getInteger("loadtest.value-size", 100),
+                Integer.getInteger("loadtest.max-in-flight", 10_000),
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2")),
+                Boolean.getBoolean("loadtest.update-baseline"),
+                Path.of(required("loadtest.jar")),
+                Arrays.stream(System.getProperty("loadtest.app-args", "").split("\\s+"))
+                        .filter(arg -> !arg.isBlank())
+                        .toList(),
+                Path.of(required("loadtest.baseline")),
+                Path.of(required("loadtest.report-dir")));
+    }
+
+    /**
+     * {@code get:60,set:20} style weights; endpoints left out are not called.
+     */
+    static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] entry = part.trim().split(":");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Mix entry '" + part + "' must look like get:60");
+            }
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                mix.put(Endpoint.of(entry[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Mix '" + value + "' has no endpoint with a positive weight");
+        }
+        return mix;
+    }
+
+    /**
+     * Endpoints repeated by weight, so picking a uniform random index follows the mix.
+     */
+    Endpoint[] weightedEndpoints() {
+        List<Endpoint> endpoints = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                endpoints.add(endpoint);
+            }
+        });
+        return endpoints.toArray(Endpoint[]::new);
+    }
+
+    /**
+     * {@code 500ms}, {@code 30s}, {@code 2m}, or plain seconds.
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            throw new IllegalStateException("System property " + name + " is not set; run through ./gradlew loadTest");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,78 @@
+package me.geon.ecs_be_prod.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a constant arrival rate, independent of how fast responses come back (open model).
+ * <p>
+ * Request {@code i} is due at {@code start + i / rate}. The dispatcher sleeps until then and sends it
+ * asynchronously; if it fell behind, overdue requests go out immediately and keep their original due time,
+ * which is what their latency is measured from.
+ */
+final class OpenLoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final URI base;
+    private final LoadTestSettings settings;
+    private final Endpoint[] weightedEndpoints;
+    private final String value;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenLoadGenerator(HttpClient client, URI base, LoadTestSettings settings) {
+        this.client = client;
+        this.base = base;
+        this.settings = settings;
+        this.weightedEndpoints = settings.weightedEndpoints();
+        this.value = "v".repeat(settings.valueSize());
+    }
+
+    Map<Endpoint, EndpointStats> run(Duration duration) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        settings.mix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+
+        SplittableRandom random = new SplittableRandom();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long requests = (long) (duration.toNanos() / intervalNanos);
+
+        for (long i = 0; i < requests; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            EndpointStats endpointStats = stats.get(endpoint);
+            if (inFlight.get() >= settings.maxInFlight()) {
+                endpointStats.drop();
+                continue;
+            }
+
+            String key = "load:" + random.nextInt(settings.keys());
+            inFlight.incrementAndGet();
+            client.sendAsync(endpoint.request(base, key, value), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        endpointStats.record(intended, System.nanoTime(), error == null && response.statusCode() < 400);
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+}
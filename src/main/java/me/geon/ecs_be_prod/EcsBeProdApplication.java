@@ -1,6 +1,7 @@
 package me.geon.ecs_be_prod;
 
 import io.github.cdimascio.dotenv.Dotenv;
+import io.github.cdimascio.dotenv.DotenvEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
@@ -13,15 +14,13 @@ public class EcsBeProdApplication {
 
     public static void main(String[] args) {
         Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
-        
-        log.info("Loading environment variables from .env file:");
-        dotenv.entries().forEach(entry -> {
+        int loaded = 0;
+        for (DotenvEntry entry : dotenv.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE)) {
             System.setProperty(entry.getKey(), entry.getValue());
-            log.info("Loaded: {} = {}", entry.getKey(), entry.getValue());
-        });
-        
+            loaded++;
+        }
+        log.info("Loaded {} environment variables from .env file", loaded);
+
         SpringApplication.run(EcsBeProdApplication.class, args);
     }
-
-
 }
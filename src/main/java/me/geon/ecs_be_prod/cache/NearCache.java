@@ -0,0 +1,223 @@
+package me.geon.ecs_be_prod.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process L1 cache in front of Redis reads.
+ * <p>
+ * Every invalidation bumps a global epoch. A reader captures the epoch before going to Redis
+ * and only populates the cache if no invalidation happened in between, so a value read just
+ * before a concurrent write can never be cached after that write was invalidated.
+ * <p>
+ * Redis does not announce expiries to pub/sub invalidation, so an entry never outlives the TTL the key had when it
+ * was read: its lifetime is the smaller of that TTL and {@code expire-after-write}.
+ */
+@Component
+public class NearCache {
+
+    private static final Set<String> PRIMARY_ONLY = Set.of("MASTER", "UPSTREAM");
+    /**
+     * {@code TTL} rounds to the nearest second, so the key may expire up to this much before the reported TTL.
+     */
+    private static final long TTL_ROUNDING_MILLIS = 500;
+
+    private final AppRedisProperties.NearCache properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, Entry> cache;
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile boolean available;
+
+    public NearCache(AppRedisProperties properties,
+                     StringRedisTemplate stringRedisTemplate,
+                     MeterRegistry meterRegistry) {
+        this.properties = properties.getNearCache();
+        if (this.properties.isEnabled() && this.properties.getInvalidation() == AppRedisProperties.InvalidationMode.TRACKING
+                && !properties.getSharding().getNodes().isEmpty()) {
+            throw new IllegalStateException("Near cache tracking invalidation only watches the default Redis node; "
+                    + "use app.redis.near-cache.invalidation=pubsub with app.redis.sharding.nodes");
+        }
+        if (this.properties.isEnabled() && this.properties.getInvalidation() == AppRedisProperties.InvalidationMode.TRACKING
+                && properties.getBuckets().isEnabled()) {
+            throw new IllegalStateException("Near cache tracking invalidation reports bucket hashes, not the keys "
+                    + "stored in them; use app.redis.near-cache.invalidation=pubsub with app.redis.buckets.enabled");
+        }
+        String readFrom = properties.getReplica().getReadFrom();
+        if (this.properties.isEnabled() && readFrom != null && !readFrom.isBlank()
+                && !PRIMARY_ONLY.contains(readFrom.trim().toUpperCase(Locale.ROOT))) {
+            throw new IllegalStateException("Near cache refills could cache a lagging replica's value after the "
+                    + "invalidation; app.redis.replica.read-from=" + readFrom + " cannot be combined with the near cache");
+        }
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(this.properties.getMaximumSize())
+                .expireAfter(new EntryLifetime())
+                .recordStats()
+                .build();
+        this.available = this.properties.isEnabled()
+                && this.properties.getInvalidation() == AppRedisProperties.InvalidationMode.PUBSUB;
+
+        if (this.properties.isEnabled()) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "redis.near-cache");
+        }
+    }
+
+    public Object get(String key) {
+        if (!available) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(key);
+        return entry == null ? null : entry.value();
+    }
+
+    public long stamp() {
+        return epoch.get();
+    }
+
+    /**
+     * Caches a value read from Redis together with the key's TTL in seconds as {@code TTL} reports it
+     * ({@code -1} without expiry). Values that are about to expire are not cached.
+     */
+    public void put(String key, Object value, long ttl, long stamp) {
+        if (!available || value == null) {
+            return;
+        }
+        long lifetime = properties.getExpireAfterWrite().toNanos();
+        if (ttl != -1) {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(TimeUnit.SECONDS.toMillis(ttl) - TTL_ROUNDING_MILLIS);
+            if (remaining <= 0) {
+                return;
+            }
+            lifetime = Math.min(lifetime, remaining);
+        }
+        cache.put(key, new Entry(value, lifetime));
+        if (epoch.get() != stamp) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidate(String key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        evict(key);
+        if (properties.getInvalidation() == AppRedisProperties.InvalidationMode.PUBSUB) {
+            stringRedisTemplate.convertAndSend(properties.getChannel(), key);
+        }
+    }
+
+    /**
+     * Invalidates a batch of keys with one {@code PUBLISH} on {@code <channel>:batch} instead of one per key.
+     */
+    public void invalidateAll(Collection<String> keys) {
+        if (!properties.isEnabled() || keys.isEmpty()) {
+            return;
+        }
+        if (keys.size() == 1) {
+            invalidate(keys.iterator().next());
+            return;
+        }
+        keys.forEach(this::evict);
+        if (properties.getInvalidation() == AppRedisProperties.InvalidationMode.PUBSUB) {
+            stringRedisTemplate.convertAndSend(batchChannel(properties.getChannel()), encodeKeys(keys));
+        }
+    }
+
+    public void evict(String key) {
+        epoch.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    /**
+     * Evicts every key of a {@code <channel>:batch} message.
+     */
+    public void evictBatch(String message) {
+        decodeKeys(message).forEach(this::evict);
+    }
+
+    public static String batchChannel(String channel) {
+        return channel + ":batch";
+    }
+
+    /**
+     * Keys as {@code <length>:<key>} one after another, so keys may contain any character.
+     */
+    static String encodeKeys(Collection<String> keys) {
+        StringBuilder message = new StringBuilder();
+        for (String key : keys) {
+            message.append(key.length()).append(':').append(key);
+        }
+        return message.toString();
+    }
+
+    static List<String> decodeKeys(String message) {
+        List<String> keys = new ArrayList<>();
+        int position = 0;
+        while (position < message.length()) {
+            int separator = message.indexOf(':', position);
+            int start = separator + 1;
+            int end = start + Integer.parseInt(message, position, separator, 10);
+            keys.add(message.substring(start, end));
+            position = end;
+        }
+        return keys;
+    }
+
+    public void evictAll() {
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public void suspend() {
+        available = false;
+        evictAll();
+    }
+
+    public void resume() {
+        evictAll();
+        available = properties.isEnabled();
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record Entry(Object value, long lifetimeNanos) {
+    }
+
+    private static final class EntryLifetime implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return entry.lifetimeNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return entry.lifetimeNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
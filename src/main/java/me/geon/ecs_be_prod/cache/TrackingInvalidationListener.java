@@ -0,0 +1,130 @@
+package me.geon.ecs_be_prod.cache;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+
+import java.net.SocketAddress;
+import java.util.List;
+
+/**
+ * Keeps one dedicated RESP3 connection in {@code CLIENT TRACKING ... BCAST} mode so the server pushes
+ * an invalidation for every write to a tracked prefix, no matter which connection performed the write.
+ * While the connection is down invalidations can be missed, so the near cache is suspended until
+ * tracking has been re-established.
+ */
+public class TrackingInvalidationListener implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackingInvalidationListener.class);
+
+    private final NearCache nearCache;
+    private final RedisProperties redisProperties;
+    private final TrackingArgs trackingArgs;
+    private RedisClient client;
+    private StatefulRedisConnection<String, String> connection;
+
+    public TrackingInvalidationListener(NearCache nearCache, RedisProperties redisProperties, List<String> prefixes) {
+        this.nearCache = nearCache;
+        this.redisProperties = redisProperties;
+        TrackingArgs args = TrackingArgs.Builder.enabled().bcast();
+        if (!prefixes.isEmpty()) {
+            args.prefixes(prefixes.toArray(String[]::new));
+        }
+        this.trackingArgs = args;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(redisProperties.getHost())
+                .withPort(redisProperties.getPort())
+                .withDatabase(redisProperties.getDatabase())
+                .withSsl(redisProperties.getSsl().isEnabled());
+        if (redisProperties.getTimeout() != null) {
+            uri.withTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.getPassword() != null) {
+            if (redisProperties.getUsername() != null) {
+                uri.withAuthentication(redisProperties.getUsername(), redisProperties.getPassword());
+            } else {
+                uri.withPassword(redisProperties.getPassword().toCharArray());
+            }
+        }
+
+        client = RedisClient.create(uri.build());
+        client.setOptions(ClientOptions.builder()
+                .protocolVersion(ProtocolVersion.RESP3)
+                .build());
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress socketAddress) {
+                if (connection != null && handler == connection) {
+                    enableTracking();
+                }
+            }
+
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                if (handler == connection) {
+                    log.warn("Near cache tracking connection lost, bypassing near cache until reconnected");
+                    nearCache.suspend();
+                }
+            }
+
+            @Override
+            public void onRedisExceptionCaught(RedisChannelHandler<?, ?> handler, Throwable cause) {
+                log.debug("Near cache tracking connection error", cause);
+            }
+        });
+
+        connection = client.connect(StringCodec.UTF8);
+        connection.addListener(message -> {
+            if (!"invalidate".equals(message.getType())) {
+                return;
+            }
+            List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+            Object keys = content.size() > 1 ? content.get(1) : null;
+            if (keys instanceof List<?> list) {
+                list.forEach(key -> nearCache.evict(String.valueOf(key)));
+            } else {
+                nearCache.evictAll();
+            }
+        });
+
+        connection.sync().clientTracking(trackingArgs);
+        nearCache.resume();
+        log.info("Near cache enabled with CLIENT TRACKING invalidation");
+    }
+
+    private void enableTracking() {
+        connection.async().clientTracking(trackingArgs).whenComplete((reply, error) -> {
+            if (error != null) {
+                log.warn("Failed to re-enable CLIENT TRACKING, near cache stays bypassed", error);
+                return;
+            }
+            nearCache.resume();
+        });
+    }
+
+    @Override
+    public void destroy() {
+        nearCache.suspend();
+        if (connection != null) {
+            connection.close();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+}
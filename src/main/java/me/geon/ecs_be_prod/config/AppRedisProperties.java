@@ -0,0 +1,786 @@
+package me.geon.ecs_be_prod.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.redis")
+public class AppRedisProperties {
+
+    private final NearCache nearCache = new NearCache();
+    private final Batch batch = new Batch();
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final WriteBehind writeBehind = new WriteBehind();
+    private final Serializer serializer = new Serializer();
+    private final HotKeys hotKeys = new HotKeys();
+    private final Scan scan = new Scan();
+    private final BulkImport bulkImport = new BulkImport();
+    private final Sharding sharding = new Sharding();
+    private final Replica replica = new Replica();
+    private final Limiter limiter = new Limiter();
+    private final Compute compute = new Compute();
+    private final WarmUp warmUp = new WarmUp();
+    private final LargeValue largeValue = new LargeValue();
+    private final Buckets buckets = new Buckets();
+    private final Watch watch = new Watch();
+    private final ResponseCompression responseCompression = new ResponseCompression();
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    public WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    public Serializer getSerializer() {
+        return serializer;
+    }
+
+    public HotKeys getHotKeys() {
+        return hotKeys;
+    }
+
+    public Scan getScan() {
+        return scan;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    public Sharding getSharding() {
+        return sharding;
+    }
+
+    public Replica getReplica() {
+        return replica;
+    }
+
+    public Limiter getLimiter() {
+        return limiter;
+    }
+
+    public Compute getCompute() {
+        return compute;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public LargeValue getLargeValue() {
+        return largeValue;
+    }
+
+    public Buckets getBuckets() {
+        return buckets;
+    }
+
+    public Watch getWatch() {
+        return watch;
+    }
+
+    public ResponseCompression getResponseCompression() {
+        return responseCompression;
+    }
+
+    public enum InvalidationMode {
+        TRACKING,
+        PUBSUB
+    }
+
+    public enum SerializerFormat {
+        JSON,
+        COMPACT
+    }
+
+    public enum BucketTtlMode {
+        AUTO,
+        NATIVE,
+        EMULATED
+    }
+
+    public static class NearCache {
+
+        private boolean enabled = false;
+        private long maximumSize = 10_000;
+        private Duration expireAfterWrite = Duration.ofSeconds(60);
+        private InvalidationMode invalidation = InvalidationMode.TRACKING;
+        private String channel = "near-cache:invalidate";
+        private List<String> prefixes = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public InvalidationMode getInvalidation() {
+            return invalidation;
+        }
+
+        public void setInvalidation(InvalidationMode invalidation) {
+            this.invalidation = invalidation;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public List<String> getPrefixes() {
+            return prefixes;
+        }
+
+        public void setPrefixes(List<String> prefixes) {
+            this.prefixes = prefixes;
+        }
+    }
+
+    public static class Batch {
+
+        private int maxSize = 1000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class SingleFlight {
+
+        private boolean enabled = true;
+        private Duration waitTimeout = Duration.ofSeconds(2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWaitTimeout() {
+            return waitTimeout;
+        }
+
+        public void setWaitTimeout(Duration waitTimeout) {
+            this.waitTimeout = waitTimeout;
+        }
+    }
+
+    public static class WriteBehind {
+
+        private boolean enabled = false;
+        private int queueCapacity = 10_000;
+        private int flushSize = 256;
+        private Duration flushInterval = Duration.ofMillis(5);
+        private Duration offerTimeout = Duration.ofMillis(50);
+        private int maxAttempts = 5;
+        private Duration retryBackoff = Duration.ofMillis(100);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getFlushSize() {
+            return flushSize;
+        }
+
+        public void setFlushSize(int flushSize) {
+            this.flushSize = flushSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Duration getOfferTimeout() {
+            return offerTimeout;
+        }
+
+        public void setOfferTimeout(Duration offerTimeout) {
+            this.offerTimeout = offerTimeout;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+    }
+
+    public static class Serializer {
+
+        private SerializerFormat format = SerializerFormat.JSON;
+        private int compressionThreshold = 1024;
+        private Map<Integer, Class<?>> types = new LinkedHashMap<>();
+        private boolean etagHeader = false;
+
+        public SerializerFormat getFormat() {
+            return format;
+        }
+
+        public void setFormat(SerializerFormat format) {
+            this.format = format;
+        }
+
+        public int getCompressionThreshold() {
+            return compressionThreshold;
+        }
+
+        public void setCompressionThreshold(int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+        }
+
+        public Map<Integer, Class<?>> getTypes() {
+            return types;
+        }
+
+        public void setTypes(Map<Integer, Class<?>> types) {
+            this.types = types;
+        }
+
+        public boolean isEtagHeader() {
+            return etagHeader;
+        }
+
+        public void setEtagHeader(boolean etagHeader) {
+            this.etagHeader = etagHeader;
+        }
+    }
+
+    public static class HotKeys {
+
+        private boolean enabled = true;
+        private int capacity = 256;
+        private double sampleRate = 0.1;
+        private Duration window = Duration.ofSeconds(60);
+        private int buckets = 6;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(int buckets) {
+            this.buckets = buckets;
+        }
+    }
+
+    public static class Scan {
+
+        private int count = 500;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    public static class BulkImport {
+
+        private int batchSize = 500;
+        private int maxReportedFailures = 100;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxReportedFailures() {
+            return maxReportedFailures;
+        }
+
+        public void setMaxReportedFailures(int maxReportedFailures) {
+            this.maxReportedFailures = maxReportedFailures;
+        }
+    }
+
+    public static class Sharding {
+
+        private List<String> nodes = new ArrayList<>();
+        private int virtualNodes = 160;
+
+        public List<String> getNodes() {
+            return nodes;
+        }
+
+        public void setNodes(List<String> nodes) {
+            this.nodes = nodes;
+        }
+
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+    }
+
+    public static class Replica {
+
+        private String readFrom = "";
+
+        public String getReadFrom() {
+            return readFrom;
+        }
+
+        public void setReadFrom(String readFrom) {
+            this.readFrom = readFrom;
+        }
+    }
+
+    public static class Limiter {
+
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        private double tolerance = 1.5;
+        private double smoothing = 0.2;
+        private int longWindow = 600;
+        private double backoffRatio = 0.9;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(int longWindow) {
+            this.longWindow = longWindow;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+    }
+
+    public static class Compute {
+
+        private double beta = 1.0;
+        private Duration lockTimeout = Duration.ofSeconds(3);
+        private Duration pollInterval = Duration.ofMillis(20);
+
+        public double getBeta() {
+            return beta;
+        }
+
+        public void setBeta(double beta) {
+            this.beta = beta;
+        }
+
+        public Duration getLockTimeout() {
+            return lockTimeout;
+        }
+
+        public void setLockTimeout(Duration lockTimeout) {
+            this.lockTimeout = lockTimeout;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+    }
+
+    public static class WarmUp {
+
+        private boolean enabled = true;
+        private int connections = 8;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public void setConnections(int connections) {
+            this.connections = connections;
+        }
+    }
+
+    public static class LargeValue {
+
+        private int threshold = 64 * 1024;
+        private int chunkSize = 256 * 1024;
+        private int pipelineChunks = 4;
+        private Duration uploadTimeout = Duration.ofMinutes(10);
+        private Duration retiredTtl = Duration.ofSeconds(60);
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getPipelineChunks() {
+            return pipelineChunks;
+        }
+
+        public void setPipelineChunks(int pipelineChunks) {
+            this.pipelineChunks = pipelineChunks;
+        }
+
+        public Duration getUploadTimeout() {
+            return uploadTimeout;
+        }
+
+        public void setUploadTimeout(Duration uploadTimeout) {
+            this.uploadTimeout = uploadTimeout;
+        }
+
+        public Duration getRetiredTtl() {
+            return retiredTtl;
+        }
+
+        public void setRetiredTtl(Duration retiredTtl) {
+            this.retiredTtl = retiredTtl;
+        }
+    }
+
+    public static class Buckets {
+
+        private boolean enabled = false;
+        private int count = 65_536;
+        private String prefix = "kv:";
+        private BucketTtlMode ttlMode = BucketTtlMode.AUTO;
+        private Duration sweepInterval = Duration.ofSeconds(1);
+        private int sweepBatch = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public void setPrefix(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public BucketTtlMode getTtlMode() {
+            return ttlMode;
+        }
+
+        public void setTtlMode(BucketTtlMode ttlMode) {
+            this.ttlMode = ttlMode;
+        }
+
+        public Duration getSweepInterval() {
+            return sweepInterval;
+        }
+
+        public void setSweepInterval(Duration sweepInterval) {
+            this.sweepInterval = sweepInterval;
+        }
+
+        public int getSweepBatch() {
+            return sweepBatch;
+        }
+
+        public void setSweepBatch(int sweepBatch) {
+            this.sweepBatch = sweepBatch;
+        }
+    }
+
+    public static class Watch {
+
+        private boolean enabled = false;
+        private int maxKeys = 100;
+        private Duration debounce = Duration.ofMillis(100);
+        private Duration heartbeat = Duration.ofSeconds(15);
+        private Duration timeout = Duration.ofMinutes(30);
+        private String keyspaceEvents = "Kg$hxe";
+        private boolean configureNotifications = false;
+        private int sendThreads = 16;
+        private Duration sendTimeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public Duration getDebounce() {
+            return debounce;
+        }
+
+        public void setDebounce(Duration debounce) {
+            this.debounce = debounce;
+        }
+
+        public Duration getHeartbeat() {
+            return heartbeat;
+        }
+
+        public void setHeartbeat(Duration heartbeat) {
+            this.heartbeat = heartbeat;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public String getKeyspaceEvents() {
+            return keyspaceEvents;
+        }
+
+        public void setKeyspaceEvents(String keyspaceEvents) {
+            this.keyspaceEvents = keyspaceEvents;
+        }
+
+        public boolean isConfigureNotifications() {
+            return configureNotifications;
+        }
+
+        public void setConfigureNotifications(boolean configureNotifications) {
+            this.configureNotifications = configureNotifications;
+        }
+
+        public int getSendThreads() {
+            return sendThreads;
+        }
+
+        public void setSendThreads(int sendThreads) {
+            this.sendThreads = sendThreads;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+    }
+
+    public static class ResponseCompression {
+
+        private boolean enabled = true;
+        private int threshold = 2048;
+        private long cacheBytes = 16 * 1024 * 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+        }
+
+        public long getCacheBytes() {
+            return cacheBytes;
+        }
+
+        public void setCacheBytes(long cacheBytes) {
+            this.cacheBytes = cacheBytes;
+        }
+    }
+}
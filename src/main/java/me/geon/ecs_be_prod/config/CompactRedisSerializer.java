@@ -0,0 +1,209 @@
+package me.geon.ecs_be_prod.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary value format: {@code [magic][flags][type id][original length if compressed][payload]}.
+ * <p>
+ * Strings, numbers and booleans are written raw, maps and collections as Smile, and registered classes
+ * as Smile bound to the class behind their type id. Anything else is written as JSON through
+ * {@link GenericJackson2JsonRedisSerializer}, which is also used to read entries written before the
+ * switch, so existing keys stay readable during migration.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    private static final byte FLAG_LZ4 = 0x01;
+    private static final int HEADER_SIZE = 3;
+
+    private static final int TYPE_GENERIC = 0;
+    private static final int TYPE_STRING = 1;
+    private static final int TYPE_LONG = 2;
+    private static final int TYPE_INTEGER = 3;
+    private static final int TYPE_DOUBLE = 4;
+    private static final int TYPE_BOOLEAN = 5;
+    private static final int TYPE_BYTES = 6;
+    static final int FIRST_USER_TYPE = 16;
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final GenericJackson2JsonRedisSerializer jsonSerializer;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+    private final int compressionThreshold;
+    private final Map<Integer, Class<?>> typesById = new HashMap<>();
+    private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+
+    public CompactRedisSerializer(GenericJackson2JsonRedisSerializer jsonSerializer,
+                                  int compressionThreshold,
+                                  Map<Integer, Class<?>> userTypes) {
+        this.jsonSerializer = jsonSerializer;
+        this.compressionThreshold = compressionThreshold;
+        userTypes.forEach((id, type) -> {
+            if (id < FIRST_USER_TYPE || id > 255) {
+                throw new IllegalArgumentException("Type id for " + type.getName() + " must be between "
+                        + FIRST_USER_TYPE + " and 255 but was " + id);
+            }
+            typesById.put(id, type);
+            idsByType.put(type, id);
+        });
+    }
+
+    /**
+     * Whether the stored bytes use this format rather than the JSON fallback.
+     */
+    public static boolean isCompact(byte[] bytes) {
+        return isCompact(bytes, 0);
+    }
+
+    /**
+     * Whether the bytes from {@code offset} on use this format rather than the JSON fallback.
+     */
+    public static boolean isCompact(byte[] bytes, int offset) {
+        return bytes.length > offset && bytes[offset] == MAGIC;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        int typeId = typeIdOf(value);
+        if (typeId < 0) {
+            return jsonSerializer.serialize(value);
+        }
+
+        byte[] payload = encode(value, typeId);
+        if (payload.length >= compressionThreshold) {
+            byte[] compressed = compressor.compress(payload);
+            if (compressed.length + Integer.BYTES < payload.length) {
+                return ByteBuffer.allocate(HEADER_SIZE + Integer.BYTES + compressed.length)
+                        .put(MAGIC)
+                        .put(FLAG_LZ4)
+                        .put((byte) typeId)
+                        .putInt(payload.length)
+                        .put(compressed)
+                        .array();
+            }
+        }
+        return ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .put(MAGIC)
+                .put((byte) 0)
+                .put((byte) typeId)
+                .put(payload)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return deserialize(bytes, 0);
+    }
+
+    /**
+     * Decodes the value that starts at {@code offset}, without copying the bytes before it away.
+     */
+    public Object deserialize(byte[] bytes, int offset) throws SerializationException {
+        if (bytes == null || bytes.length <= offset) {
+            return null;
+        }
+        if (bytes[offset] != MAGIC) {
+            return jsonSerializer.deserialize(offset == 0 ? bytes : Arrays.copyOfRange(bytes, offset, bytes.length));
+        }
+        if (bytes.length - offset < HEADER_SIZE) {
+            throw new SerializationException("Truncated compact value of " + (bytes.length - offset) + " bytes");
+        }
+
+        int typeId = bytes[offset + 2] & 0xFF;
+        int start = offset + HEADER_SIZE;
+        if ((bytes[offset + 1] & FLAG_LZ4) != 0) {
+            int length = ByteBuffer.wrap(bytes, start, Integer.BYTES).getInt();
+            byte[] payload = new byte[length];
+            decompressor.decompress(bytes, start + Integer.BYTES, payload, 0, length);
+            return decode(payload, 0, length, typeId);
+        }
+        return decode(bytes, start, bytes.length - start, typeId);
+    }
+
+    private int typeIdOf(Object value) {
+        if (value instanceof String) {
+            return TYPE_STRING;
+        }
+        if (value instanceof Long) {
+            return TYPE_LONG;
+        }
+        if (value instanceof Integer) {
+            return TYPE_INTEGER;
+        }
+        if (value instanceof Double) {
+            return TYPE_DOUBLE;
+        }
+        if (value instanceof Boolean) {
+            return TYPE_BOOLEAN;
+        }
+        if (value instanceof byte[]) {
+            return TYPE_BYTES;
+        }
+        Integer registered = idsByType.get(value.getClass());
+        if (registered != null) {
+            return registered;
+        }
+        if (value instanceof Map<?, ?> || value instanceof Collection<?>) {
+            return TYPE_GENERIC;
+        }
+        return -1;
+    }
+
+    private byte[] encode(Object value, int typeId) {
+        return switch (typeId) {
+            case TYPE_STRING -> ((String) value).getBytes(StandardCharsets.UTF_8);
+            case TYPE_LONG -> ByteBuffer.allocate(Long.BYTES).putLong((Long) value).array();
+            case TYPE_INTEGER -> ByteBuffer.allocate(Integer.BYTES).putInt((Integer) value).array();
+            case TYPE_DOUBLE -> ByteBuffer.allocate(Double.BYTES).putDouble((Double) value).array();
+            case TYPE_BOOLEAN -> new byte[] {(byte) ((Boolean) value ? 1 : 0)};
+            case TYPE_BYTES -> (byte[]) value;
+            default -> {
+                try {
+                    yield smileMapper.writeValueAsBytes(value);
+                } catch (IOException e) {
+                    throw new SerializationException("Could not write compact value", e);
+                }
+            }
+        };
+    }
+
+    private Object decode(byte[] bytes, int offset, int length, int typeId) {
+        return switch (typeId) {
+            case TYPE_STRING -> new String(bytes, offset, length, StandardCharsets.UTF_8);
+            case TYPE_LONG -> ByteBuffer.wrap(bytes, offset, length).getLong();
+            case TYPE_INTEGER -> ByteBuffer.wrap(bytes, offset, length).getInt();
+            case TYPE_DOUBLE -> ByteBuffer.wrap(bytes, offset, length).getDouble();
+            case TYPE_BOOLEAN -> bytes[offset] != 0;
+            case TYPE_BYTES -> Arrays.copyOfRange(bytes, offset, offset + length);
+            default -> {
+                Class<?> type = typeId == TYPE_GENERIC ? Object.class : typesById.get(typeId);
+                if (type == null) {
+                    throw new SerializationException("Unknown compact type id " + typeId);
+                }
+                try {
+                    yield smileMapper.readValue(bytes, offset, length, type);
+                } catch (IOException e) {
+                    throw new SerializationException("Could not read compact value", e);
+                }
+            }
+        };
+    }
+}
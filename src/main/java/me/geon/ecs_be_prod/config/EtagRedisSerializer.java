@@ -0,0 +1,91 @@
+package me.geon.ecs_be_prod.config;
+
+import net.jpountz.xxhash.XXHash64;
+import net.jpountz.xxhash.XXHashFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Value format with a content hash in front: {@code [magic][XXH64 of payload][payload]}.
+ * <p>
+ * The hash lives inside the value, so it is written, expired and deleted together with it by every command that
+ * touches the key, and a conditional read can fetch it with {@code GETRANGE key 0 8} without transferring the
+ * value. Values without the header, written before the switch or by other clients, go to the delegate as they
+ * are and simply have no hash.
+ * <p>
+ * Opt-in through {@code app.redis.serializer.etag-header}: readers without this class cannot decode the header, so
+ * every task and client has to read it before any of them writes it.
+ */
+public class EtagRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * Never the first byte of UTF-8 text, JSON or the compact format.
+     */
+    static final byte MAGIC = (byte) 0xFE;
+    public static final int HEADER_SIZE = 1 + Long.BYTES;
+
+    private static final XXHash64 XXHASH = XXHashFactory.fastestInstance().hash64();
+
+    private final RedisSerializer<Object> delegate;
+    private final CompactRedisSerializer compact;
+
+    public EtagRedisSerializer(RedisSerializer<Object> delegate) {
+        this.delegate = delegate;
+        this.compact = delegate instanceof CompactRedisSerializer compactSerializer ? compactSerializer : null;
+    }
+
+    /**
+     * The ETag value (without quotes) of stored bytes, or {@code null} when they carry no hash. Only the first
+     * {@link #HEADER_SIZE} bytes are needed.
+     */
+    public static String tagOf(byte[] stored) {
+        if (!isTagged(stored)) {
+            return null;
+        }
+        return Long.toHexString(ByteBuffer.wrap(stored, 1, Long.BYTES).getLong());
+    }
+
+    /**
+     * Where the bytes the delegate wrote start: after the header, or 0 when there is none.
+     */
+    public static int payloadOffset(byte[] stored) {
+        return isTagged(stored) ? HEADER_SIZE : 0;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] payload = delegate.serialize(value);
+        if (payload == null || payload.length == 0) {
+            return payload;
+        }
+        return ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .put(MAGIC)
+                .putLong(XXHASH.hash(payload, 0, payload.length, 0))
+                .put(payload)
+                .array();
+    }
+
+    /**
+     * The compact format decodes in place after the header. JSON goes through
+     * {@code GenericJackson2JsonRedisSerializer}, which only reads whole arrays, so tagged JSON values are copied
+     * once without the header.
+     */
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        int offset = bytes == null ? 0 : payloadOffset(bytes);
+        if (offset == 0) {
+            return delegate.deserialize(bytes);
+        }
+        if (compact != null) {
+            return compact.deserialize(bytes, offset);
+        }
+        return delegate.deserialize(Arrays.copyOfRange(bytes, offset, bytes.length));
+    }
+
+    private static boolean isTagged(byte[] stored) {
+        return stored != null && stored.length >= HEADER_SIZE && stored[0] == MAGIC;
+    }
+}
@@ -0,0 +1,16 @@
+package me.geon.ecs_be_prod.config;
+
+import io.lettuce.core.metrics.MicrometerOptions;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MicrometerOptions micrometerOptions() {
+        return MicrometerOptions.builder()
+                .histogram(true)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package me.geon.ecs_be_prod.config;
+
+import me.geon.ecs_be_prod.cache.NearCache;
+import me.geon.ecs_be_prod.cache.TrackingInvalidationListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.redis.near-cache", name = "enabled", havingValue = "true")
+public class NearCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.redis.near-cache", name = "invalidation", havingValue = "tracking", matchIfMissing = true)
+    public TrackingInvalidationListener trackingInvalidationListener(NearCache nearCache,
+                                                                     RedisProperties redisProperties,
+                                                                     AppRedisProperties properties) {
+        return new TrackingInvalidationListener(nearCache, redisProperties, properties.getNearCache().getPrefixes());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.redis.near-cache", name = "invalidation", havingValue = "pubsub")
+    public RedisMessageListenerContainer nearCacheInvalidationContainer(RedisConnectionFactory connectionFactory,
+                                                                        NearCache nearCache,
+                                                                        AppRedisProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> nearCache.evict(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(properties.getNearCache().getChannel()));
+        container.addMessageListener(
+                (message, pattern) -> nearCache.evictBatch(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(NearCache.batchChannel(properties.getNearCache().getChannel())));
+        return container;
+    }
+}
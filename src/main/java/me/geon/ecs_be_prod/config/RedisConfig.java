@@ -1,32 +1,213 @@
 package me.geon.ecs_be_prod.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulConnection;
+import me.geon.ecs_be_prod.metrics.TimedRedisSerializer;
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundle;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Configuration
 @EnableRedisRepositories
+@EnableConfigurationProperties(AppRedisProperties.class)
 public class RedisConfig {
 
+    /**
+     * With {@code etag-header} string values carry their content hash for conditional reads
+     * ({@link EtagRedisSerializer}). Bucketed values have no ETag, so the two cannot be combined.
+     */
+    @Bean
+    public RedisSerializer<Object> redisValueSerializer(AppRedisProperties properties, MeterRegistry meterRegistry) {
+        AppRedisProperties.Serializer serializer = properties.getSerializer();
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        RedisSerializer<Object> format = jsonSerializer;
+        if (serializer.getFormat() == AppRedisProperties.SerializerFormat.COMPACT) {
+            format = new CompactRedisSerializer(jsonSerializer, serializer.getCompressionThreshold(), serializer.getTypes());
+        }
+        if (serializer.isEtagHeader()) {
+            if (properties.getBuckets().isEnabled()) {
+                throw new IllegalStateException("Bucketed values carry no ETag; "
+                        + "app.redis.serializer.etag-header cannot be combined with app.redis.buckets.enabled");
+            }
+            format = new EtagRedisSerializer(format);
+        }
+        return new TimedRedisSerializer(format, meterRegistry);
+    }
+
+    /**
+     * With a read policy set, Lettuce discovers the primary's replicas from {@code INFO replication} and sends
+     * read-only commands according to the policy; writes always go to the primary. Replicas lag, so a read right
+     * after a write may still see the old value.
+     */
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer readFromCustomizer(AppRedisProperties properties) {
+        ReadFrom readFrom = readFrom(properties);
+        return builder -> {
+            if (readFrom != null) {
+                builder.readFrom(readFrom);
+            }
+        };
+    }
+
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       RedisSerializer<Object> redisValueSerializer) {
+        return createTemplate(connectionFactory, redisValueSerializer);
+    }
+
+    /**
+     * Shard connections are built from the same {@code spring.data.redis.*} settings Boot applies to the default
+     * connection (credentials, database, client name, SSL, timeouts and pool), and the same client customizers.
+     */
+    @Bean
+    public RedisShards redisShards(AppRedisProperties properties,
+                                   RedisProperties redisProperties,
+                                   RedisTemplate<String, Object> redisTemplate,
+                                   RedisSerializer<Object> redisValueSerializer,
+                                   ObjectProvider<LettuceClientConfigurationBuilderCustomizer> customizers,
+                                   ObjectProvider<SslBundles> sslBundles) {
+        AppRedisProperties.Sharding sharding = properties.getSharding();
+        if (sharding.getNodes().isEmpty()) {
+            return new RedisShards(redisTemplate);
+        }
+        
+        Map<String, RedisTemplate<String, Object>> nodes = new LinkedHashMap<>();
+        for (String node : sharding.getNodes()) {
+            nodes.put(node, createTemplate(
+                    shardConnectionFactory(node, redisProperties, customizers, sslBundles), redisValueSerializer));
+        }
+        return new RedisShards(nodes, sharding.getVirtualNodes());
+    }
+
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                       RedisSerializer<Object> redisValueSerializer) {
+        RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .key(new StringRedisSerializer())
+                .value(redisValueSerializer)
+                .hashKey(new StringRedisSerializer())
+                .hashValue(redisValueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
+    private static RedisTemplate<String, Object> createTemplate(RedisConnectionFactory connectionFactory,
+                                                                RedisSerializer<Object> redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(redisValueSerializer);
         
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(redisValueSerializer);
         
-        template.setDefaultSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setDefaultSerializer(redisValueSerializer);
         template.setEnableDefaultSerializer(true);
         
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    private static ReadFrom readFrom(AppRedisProperties properties) {
+        String readFrom = properties.getReplica().getReadFrom();
+        return readFrom == null || readFrom.isBlank() ? null : ReadFrom.valueOf(readFrom.trim());
+    }
+
+    private static LettuceConnectionFactory shardConnectionFactory(String node,
+                                                                   RedisProperties redisProperties,
+                                                                   ObjectProvider<LettuceClientConfigurationBuilderCustomizer> customizers,
+                                                                   ObjectProvider<SslBundles> sslBundles) {
+        int separator = node.lastIndexOf(':');
+        if (separator <= 0 || separator == node.length() - 1) {
+            throw new IllegalArgumentException("Shard node must be host:port but was '" + node + "'");
+        }
+        RedisStandaloneConfiguration standalone = new RedisStandaloneConfiguration(
+                node.substring(0, separator), Integer.parseInt(node.substring(separator + 1)));
+        standalone.setUsername(redisProperties.getUsername());
+        standalone.setPassword(redisProperties.getPassword());
+        standalone.setDatabase(redisProperties.getDatabase());
+
+        RedisProperties.Pool pool = redisProperties.getLettuce().getPool();
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(pool.getMaxActive());
+        poolConfig.setMaxIdle(pool.getMaxIdle());
+        poolConfig.setMinIdle(pool.getMinIdle());
+        if (pool.getMaxWait() != null) {
+            poolConfig.setMaxWait(pool.getMaxWait());
+        }
+        LettucePoolingClientConfiguration.LettucePoolingClientConfigurationBuilder clientConfig =
+                LettucePoolingClientConfiguration.builder().poolConfig(poolConfig);
+        if (redisProperties.getTimeout() != null) {
+            clientConfig.commandTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.getLettuce().getShutdownTimeout() != null) {
+            clientConfig.shutdownTimeout(redisProperties.getLettuce().getShutdownTimeout());
+        }
+        if (StringUtils.hasText(redisProperties.getClientName())) {
+            clientConfig.clientName(redisProperties.getClientName());
+        }
+        RedisProperties.Ssl ssl = redisProperties.getSsl();
+        SslBundle sslBundle = null;
+        if (StringUtils.hasText(ssl.getBundle())) {
+            sslBundle = sslBundles.getObject().getBundle(ssl.getBundle());
+        }
+        if (ssl.isEnabled() || sslBundle != null) {
+            clientConfig.useSsl();
+        }
+        clientConfig.clientOptions(clientOptions(redisProperties, sslBundle));
+        customizers.orderedStream().forEach(customizer -> customizer.customize(clientConfig));
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(standalone, clientConfig.build());
+        connectionFactory.afterPropertiesSet();
+        return connectionFactory;
+    }
+
+    private static ClientOptions clientOptions(RedisProperties redisProperties, SslBundle sslBundle) {
+        ClientOptions.Builder options = ClientOptions.builder().timeoutOptions(TimeoutOptions.enabled());
+        if (redisProperties.getConnectTimeout() != null) {
+            options.socketOptions(SocketOptions.builder().connectTimeout(redisProperties.getConnectTimeout()).build());
+        }
+        if (sslBundle != null) {
+            io.lettuce.core.SslOptions.Builder sslOptions = io.lettuce.core.SslOptions.builder()
+                    .keyManager(sslBundle.getManagers().getKeyManagerFactory())
+                    .trustManager(sslBundle.getManagers().getTrustManagerFactory());
+            if (sslBundle.getOptions().getCiphers() != null) {
+                sslOptions.cipherSuites(sslBundle.getOptions().getCiphers());
+            }
+            if (sslBundle.getOptions().getEnabledProtocols() != null) {
+                sslOptions.protocols(sslBundle.getOptions().getEnabledProtocols());
+            }
+            options.sslOptions(sslOptions.build());
+        }
+        return options.build();
+    }
+}
@@ -0,0 +1,175 @@
+package me.geon.ecs_be_prod.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ETag handling and gzip for {@code /get}. The identity body is tagged {@code "<hash>"} and the gzip body
+ * {@code "<hash>-gzip"}; both match the same stored hash in {@code If-None-Match}. Compressed bodies are cached per
+ * key with the tag they were made for, so a hot value is compressed once per version.
+ * <p>
+ * Only used for single values: streaming endpoints ({@code /scan}, {@code /watch}, {@code /large}) are never
+ * buffered for compression.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ConditionalResponses {
+
+    private static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private final AppRedisProperties.ResponseCompression properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Compressed> compressed;
+
+    public ConditionalResponses(AppRedisProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties.getResponseCompression();
+        this.objectMapper = objectMapper;
+        this.compressed = Caffeine.newBuilder()
+                .maximumWeight(this.properties.getCacheBytes())
+                .weigher((String key, Compressed entry) -> key.length() + entry.tag().length() + entry.body().length)
+                .recordStats()
+                .build();
+        if (this.properties.isEnabled()) {
+            CaffeineCacheMetrics.monitor(meterRegistry, compressed, "redis.response-compression");
+        }
+    }
+
+    /**
+     * The 304 response for {@code ifNoneMatch}, or {@code null} when none of its tags matches {@code tag}.
+     */
+    public ResponseEntity<?> notModified(String ifNoneMatch, String tag) {
+        if (tag == null) {
+            return null;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String etag = candidate.trim();
+            if (etag.equals("*")) {
+                return notModifiedWith(quote(tag));
+            }
+            String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+            if (opaque.length() < 2 || opaque.charAt(0) != '"' || opaque.charAt(opaque.length() - 1) != '"') {
+                continue;
+            }
+            opaque = opaque.substring(1, opaque.length() - 1);
+            if (opaque.endsWith(GZIP_SUFFIX)) {
+                opaque = opaque.substring(0, opaque.length() - GZIP_SUFFIX.length());
+            }
+            if (opaque.equals(tag)) {
+                return notModifiedWith(etag);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A 200 response for {@code body}, gzip-encoded when the client accepts it and the JSON is at least
+     * {@code threshold} bytes.
+     */
+    public ResponseEntity<?> ok(String key, String tag, Map<String, Object> body, String acceptEncoding) {
+        if (!properties.isEnabled() || !acceptsGzip(acceptEncoding)) {
+            return ResponseEntity.ok().eTag(quote(tag)).varyBy(HttpHeaders.ACCEPT_ENCODING).body(body);
+        }
+
+        Compressed cached = compressed.getIfPresent(key);
+        if (cached != null && cached.tag().equals(tag)) {
+            return gzipped(tag, cached.body());
+        }
+        byte[] json = json(body);
+        if (json.length < properties.getThreshold()) {
+            return ResponseEntity.ok()
+                    .eTag(quote(tag))
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json);
+        }
+        byte[] gzip = gzip(json);
+        compressed.put(key, new Compressed(tag, gzip));
+        return gzipped(tag, gzip);
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} lists gzip (or {@code *}) without {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase(GZIP) && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) == 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<?> notModifiedWith(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+    }
+
+    private static ResponseEntity<byte[]> gzipped(String tag, byte[] gzip) {
+        return ResponseEntity.ok()
+                .eTag(quote(tag + GZIP_SUFFIX))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(gzip);
+    }
+
+    private byte[] json(Map<String, Object> body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String quote(String tag) {
+        return '"' + tag + '"';
+    }
+
+    private record Compressed(String tag, byte[] body) {
+    }
+}
@@ -0,0 +1,115 @@
+package me.geon.ecs_be_prod.controller;
+
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.metrics.HotKeyTracker;
+import me.geon.ecs_be_prod.service.KeyValueEntry;
+import me.geon.ecs_be_prod.service.ReactiveRedisService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/redis")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRedisController {
+
+    private final ReactiveRedisService redisService;
+    private final AppRedisProperties.Batch batchProperties;
+    private final AppRedisProperties.HotKeys hotKeyProperties;
+    private final AppRedisProperties.Scan scanProperties;
+    private final HotKeyTracker hotKeyTracker;
+
+    public ReactiveRedisController(ReactiveRedisService redisService, AppRedisProperties properties, HotKeyTracker hotKeyTracker) {
+        this.redisService = redisService;
+        this.batchProperties = properties.getBatch();
+        this.hotKeyProperties = properties.getHotKeys();
+        this.scanProperties = properties.getScan();
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @PostMapping("/set")
+    public Mono<ResponseEntity<Map<String, String>>> setValue(
+            @RequestParam String key,
+            @RequestParam String value,
+            @RequestParam(required = false) Long timeout) {
+
+        Mono<Boolean> set = timeout != null && timeout > 0
+                ? redisService.setValueWithDuration(key, value, Duration.ofSeconds(timeout))
+                : redisService.setValue(key, value);
+        return set.thenReturn(ResponseEntity.ok(RedisResponses.set(key)));
+    }
+
+    @GetMapping("/get")
+    public Mono<ResponseEntity<Map<String, Object>>> getValue(@RequestParam String key) {
+        return redisService.getValue(key)
+                .map(value -> RedisResponses.get(key, value))
+                .defaultIfEmpty(RedisResponses.get(key, null))
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/delete")
+    public Mono<ResponseEntity<Map<String, Object>>> deleteValue(@RequestParam String key) {
+        return redisService.deleteValue(key)
+                .map(deleted -> ResponseEntity.ok(RedisResponses.delete(key, deleted)));
+    }
+
+    @GetMapping("/exists")
+    public Mono<ResponseEntity<Map<String, Object>>> checkKey(@RequestParam String key) {
+        return redisService.hasKey(key)
+                .map(exists -> ResponseEntity.ok(RedisResponses.exists(key, exists)));
+    }
+
+    @GetMapping("/ttl")
+    public Mono<ResponseEntity<Map<String, Object>>> getTimeToLive(@RequestParam String key) {
+        return redisService.getExpire(key)
+                .map(ttl -> ResponseEntity.ok(RedisResponses.ttl(key, ttl)));
+    }
+
+    @PostMapping("/mget")
+    public Mono<ResponseEntity<Map<String, Object>>> getValues(@RequestBody List<String> keys) {
+        Map<String, Object> rejected = RedisResponses.rejectBatch(keys, batchProperties.getMaxSize());
+        if (rejected != null) {
+            return Mono.just(ResponseEntity.badRequest().body(rejected));
+        }
+        return redisService.getValues(keys)
+                .map(values -> ResponseEntity.ok(RedisResponses.mget(values)));
+    }
+
+    @PostMapping("/mset")
+    public Mono<ResponseEntity<Map<String, Object>>> setValues(@RequestBody List<KeyValueEntry> entries) {
+        Map<String, Object> rejected = RedisResponses.rejectEntries(entries, batchProperties.getMaxSize());
+        if (rejected != null) {
+            return Mono.just(ResponseEntity.badRequest().body(rejected));
+        }
+        return redisService.setValues(entries)
+                .map(written -> ResponseEntity.ok(RedisResponses.mset(written)));
+    }
+
+    @PostMapping("/mdelete")
+    public Mono<ResponseEntity<Map<String, Object>>> deleteValues(@RequestBody List<String> keys) {
+        Map<String, Object> rejected = RedisResponses.rejectBatch(keys, batchProperties.getMaxSize());
+        if (rejected != null) {
+            return Mono.just(ResponseEntity.badRequest().body(rejected));
+        }
+        return redisService.deleteValues(keys)
+                .map(deleted -> ResponseEntity.ok(RedisResponses.mdelete(deleted)));
+    }
+
+    @GetMapping("/hotkeys")
+    public Mono<ResponseEntity<Map<String, Object>>> getHotKeys(@RequestParam(defaultValue = "20") int limit) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(RedisResponses.hotKeys(
+                hotKeyTracker.top(limit), hotKeyTracker.windowSeconds(), hotKeyProperties.getSampleRate())));
+    }
+
+    @GetMapping(value = "/scan", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<KeyValueEntry> scan(@RequestParam(defaultValue = "*") String match) {
+        return redisService.scan(match, scanProperties.getCount());
+    }
+}
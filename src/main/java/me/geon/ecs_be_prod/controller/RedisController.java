@@ -1,21 +1,73 @@
 package me.geon.ecs_be_prod.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.config.CompactRedisSerializer;
+import me.geon.ecs_be_prod.config.EtagRedisSerializer;
+import me.geon.ecs_be_prod.metrics.HotKeyTracker;
+import me.geon.ecs_be_prod.service.BulkImportService;
+import me.geon.ecs_be_prod.service.KeyChangeFeed;
+import me.geon.ecs_be_prod.service.KeyValueEntry;
+import me.geon.ecs_be_prod.service.LargeValueManifest;
+import me.geon.ecs_be_prod.service.LargeValueService;
 import me.geon.ecs_be_prod.service.RedisService;
+import me.geon.ecs_be_prod.service.TaggedValue;
+import me.geon.ecs_be_prod.service.VersionedWrite;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/redis")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RedisController {
     
     private final RedisService redisService;
+    private final BulkImportService bulkImportService;
+    private final LargeValueService largeValueService;
+    private final KeyChangeFeed keyChangeFeed;
+    private final ConditionalResponses conditionalResponses;
+    private final AppRedisProperties.Batch batchProperties;
+    private final AppRedisProperties.HotKeys hotKeyProperties;
+    private final AppRedisProperties.Scan scanProperties;
+    private final AppRedisProperties.Watch watchProperties;
+    private final HotKeyTracker hotKeyTracker;
+    private final ObjectMapper objectMapper;
     
-    public RedisController(RedisService redisService) {
+    public RedisController(RedisService redisService,
+                           BulkImportService bulkImportService,
+                           LargeValueService largeValueService,
+                           KeyChangeFeed keyChangeFeed,
+                           ConditionalResponses conditionalResponses,
+                           AppRedisProperties properties,
+                           HotKeyTracker hotKeyTracker,
+                           ObjectMapper objectMapper) {
         this.redisService = redisService;
+        this.bulkImportService = bulkImportService;
+        this.largeValueService = largeValueService;
+        this.keyChangeFeed = keyChangeFeed;
+        this.conditionalResponses = conditionalResponses;
+        this.batchProperties = properties.getBatch();
+        this.hotKeyProperties = properties.getHotKeys();
+        this.scanProperties = properties.getScan();
+        this.watchProperties = properties.getWatch();
+        this.hotKeyTracker = hotKeyTracker;
+        this.objectMapper = objectMapper;
     }
     
     @PostMapping("/set")
@@ -30,64 +82,266 @@ public class RedisController {
             redisService.setValue(key, value);
         }
         
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Value set successfully");
-        response.put("key", key);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(RedisResponses.set(key));
     }
     
+    /**
+     * With {@code etag-header}, found values that carry a stored hash get a strong ETag. When {@code If-None-Match}
+     * matches it, the answer is 304 without reading or decoding the value; otherwise large bodies are gzip-encoded
+     * if accepted. Values without a hash are answered without an ETag.
+     */
     @GetMapping("/get")
-    public ResponseEntity<Map<String, Object>> getValue(@RequestParam String key) {
-        Object value = redisService.getValue(key);
-        
-        Map<String, Object> response = new HashMap<>();
-        if (value != null) {
-            response.put("key", key);
-            response.put("value", value);
-            response.put("found", true);
-        } else {
-            response.put("key", key);
-            response.put("found", false);
-            response.put("message", "Key not found");
+    public ResponseEntity<?> getValue(
+            @RequestParam String key,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        if (ifNoneMatch != null) {
+            ResponseEntity<?> notModified = conditionalResponses.notModified(ifNoneMatch, redisService.getETag(key));
+            if (notModified != null) {
+                return notModified;
+            }
+        }
+        
+        TaggedValue tagged = redisService.getTaggedValue(key);
+        if (tagged.etag() == null) {
+            return ResponseEntity.ok(RedisResponses.get(key, tagged.value()));
         }
+        return conditionalResponses.ok(key, tagged.etag(), RedisResponses.get(key, tagged.value()), acceptEncoding);
+    }
+    
+    /**
+     * Same response as {@link #getValue}, but JSON values are copied from Redis into the body as stored,
+     * including any type hints the serializer wrote. Values in the compact format still have to be decoded.
+     */
+    @GetMapping(value = "/get", params = "raw=true")
+    public void getRawValue(@RequestParam String key, HttpServletResponse response) throws IOException {
+        byte[] value = redisService.getRawValue(key);
+        int offset = value == null ? 0 : EtagRedisSerializer.payloadOffset(value);
+        if (value != null && value.length == offset) {
+            value = null;
+        } else if (value != null && CompactRedisSerializer.isCompact(value, offset)) {
+            Object decoded = redisService.getValue(key);
+            value = decoded == null ? null : objectMapper.writeValueAsBytes(decoded);
+            offset = 0;
+        }
+        
+        byte[] escapedKey = RedisResponses.escapeKey(key);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(RedisResponses.rawGetLength(escapedKey, value, offset));
+        RedisResponses.writeRawGet(response.getOutputStream(), escapedKey, value, offset);
+    }
+    
+    @GetMapping("/get-with-ttl")
+    public ResponseEntity<Map<String, Object>> getValueWithTtl(@RequestParam String key) {
+        return ResponseEntity.ok(RedisResponses.getWithTtl(key, redisService.getWithTtl(key)));
+    }
+    
+    @PostMapping("/set-if-version")
+    public ResponseEntity<Map<String, Object>> setValueIfVersion(
+            @RequestParam String key,
+            @RequestParam String value,
+            @RequestParam long version,
+            @RequestParam(required = false) Long timeout) {
         
-        return ResponseEntity.ok(response);
+        Duration ttl = timeout != null && timeout > 0 ? Duration.ofSeconds(timeout) : null;
+        VersionedWrite result = redisService.setIfVersion(key, value, version, ttl);
+        
+        return ResponseEntity.status(result.applied() ? HttpStatus.OK : HttpStatus.CONFLICT)
+                .body(RedisResponses.setIfVersion(key, result));
+    }
+    
+    @PostMapping("/get-and-refresh")
+    public ResponseEntity<Map<String, Object>> getValueAndRefreshExpiry(
+            @RequestParam String key,
+            @RequestParam long timeout) {
+        
+        Object value = redisService.getAndRefreshExpiry(key, Duration.ofSeconds(timeout));
+        
+        return ResponseEntity.ok(RedisResponses.get(key, value));
     }
     
     @DeleteMapping("/delete")
     public ResponseEntity<Map<String, Object>> deleteValue(@RequestParam String key) {
         Boolean deleted = redisService.deleteValue(key);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("key", key);
-        response.put("deleted", deleted);
-        response.put("message", deleted ? "Key deleted successfully" : "Key not found");
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(RedisResponses.delete(key, deleted));
     }
     
     @GetMapping("/exists")
     public ResponseEntity<Map<String, Object>> checkKey(@RequestParam String key) {
         Boolean exists = redisService.hasKey(key);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("key", key);
-        response.put("exists", exists);
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(RedisResponses.exists(key, exists));
     }
     
     @GetMapping("/ttl")
     public ResponseEntity<Map<String, Object>> getTimeToLive(@RequestParam String key) {
         Long ttl = redisService.getExpire(key);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("key", key);
-        response.put("ttl", ttl);
-        response.put("message", ttl == -2 ? "Key does not exist" : 
-                                ttl == -1 ? "Key exists but has no expiration" : 
-                                "TTL in seconds: " + ttl);
+        return ResponseEntity.ok(RedisResponses.ttl(key, ttl));
+    }
+    
+    @PostMapping("/mget")
+    public ResponseEntity<Map<String, Object>> getValues(@RequestBody List<String> keys) {
+        Map<String, Object> rejected = RedisResponses.rejectBatch(keys, batchProperties.getMaxSize());
+        if (rejected != null) {
+            return ResponseEntity.badRequest().body(rejected);
+        }
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(RedisResponses.mget(redisService.getValues(keys)));
+    }
+    
+    @PostMapping("/mset")
+    public ResponseEntity<Map<String, Object>> setValues(@RequestBody List<KeyValueEntry> entries) {
+        Map<String, Object> rejected = RedisResponses.rejectEntries(entries, batchProperties.getMaxSize());
+        if (rejected != null) {
+            return ResponseEntity.badRequest().body(rejected);
+        }
+        
+        return ResponseEntity.ok(RedisResponses.mset(redisService.setValues(entries)));
+    }
+    
+    @PostMapping("/mdelete")
+    public ResponseEntity<Map<String, Object>> deleteValues(@RequestBody List<String> keys) {
+        Map<String, Object> rejected = RedisResponses.rejectBatch(keys, batchProperties.getMaxSize());
+        if (rejected != null) {
+            return ResponseEntity.badRequest().body(rejected);
+        }
+        
+        return ResponseEntity.ok(RedisResponses.mdelete(redisService.deleteValues(keys)));
+    }
+    
+    @GetMapping("/hotkeys")
+    public ResponseEntity<Map<String, Object>> getHotKeys(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(RedisResponses.hotKeys(
+                hotKeyTracker.top(limit), hotKeyTracker.windowSeconds(), hotKeyProperties.getSampleRate()));
+    }
+    
+    @GetMapping(value = "/scan", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> scan(@RequestParam(defaultValue = "*") String match) {
+        StreamingResponseBody body = out -> redisService.scan(match, scanProperties.getCount(), entries -> {
+            try {
+                for (KeyValueEntry entry : entries) {
+                    out.write(objectMapper.writeValueAsBytes(entry));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    /**
+     * Server-sent events for the given keys: a {@code snapshot} event with all of them, then {@code change}
+     * events with the keys whose value changed, in the same shape as {@code /mget}. A comment line is sent every
+     * {@code heartbeat} so proxies keep the connection open and closed clients are noticed.
+     */
+    @GetMapping("/watch")
+    public ResponseEntity<?> watch(@RequestParam List<String> keys) {
+        if (!keyChangeFeed.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(RedisResponses.message("Watching keys is disabled"));
+        }
+        Map<String, Object> rejected = keys.isEmpty()
+                ? RedisResponses.message("At least one key is required")
+                : RedisResponses.rejectBatch(keys, watchProperties.getMaxKeys());
+        if (rejected != null) {
+            return ResponseEntity.badRequest().body(rejected);
+        }
+        
+        SseEmitter emitter = new SseEmitter(watchProperties.getTimeout().toMillis());
+        KeyChangeFeed.Subscription subscription = keyChangeFeed.subscribe(keys, new KeyChangeFeed.Listener() {
+            @Override
+            public void changed(Map<String, Object> values, boolean snapshot) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name(snapshot ? "snapshot" : "change")
+                        .data(RedisResponses.mget(values), MediaType.APPLICATION_JSON));
+            }
+            
+            @Override
+            public void heartbeat() throws IOException {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+    
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(RedisResponses.bulkImport(bulkImportService.importNdjson(body)));
+    }
+    
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<Map<String, Object>> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(RedisResponses.bulkImport(bulkImportService.importCsv(body)));
+    }
+    
+    @PutMapping(value = "/large", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> setLargeValue(
+            @RequestParam String key,
+            @RequestParam(required = false) Long timeout,
+            InputStream body) throws IOException {
+        
+        Duration ttl = timeout != null && timeout > 0 ? Duration.ofSeconds(timeout) : null;
+        LargeValueManifest manifest = largeValueService.write(key, body, ttl);
+        
+        return ResponseEntity.ok(RedisResponses.largeValue(key, manifest));
+    }
+    
+    /**
+     * Streams the stored bytes chunk by chunk. A single {@code Range} is answered with 206; several ranges are
+     * ignored and the whole value is sent, which RFC 9110 allows. The manifest id is the strong ETag.
+     */
+    @GetMapping("/large")
+    public void getLargeValue(
+            @RequestParam String key,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            HttpServletResponse response) throws IOException {
+        
+        LargeValueManifest manifest = largeValueService.manifest(key);
+        if (manifest == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), RedisResponses.get(key, null));
+            return;
+        }
+        
+        long start = 0;
+        long end = manifest.size() - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, "\"" + manifest.id() + "\"");
+        if (range != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(manifest.size());
+                    end = ranges.get(0).getRangeEnd(manifest.size());
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + manifest.size());
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + manifest.size());
+                return;
+            }
+        }
+        
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(end - start + 1);
+        if (end >= start) {
+            largeValueService.read(key, manifest, start, end, response.getOutputStream());
+        }
+    }
+    
+    @DeleteMapping("/large")
+    public ResponseEntity<Map<String, Object>> deleteLargeValue(@RequestParam String key) {
+        return ResponseEntity.ok(RedisResponses.delete(key, largeValueService.delete(key)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package me.geon.ecs_be_prod.controller;
+
+import me.geon.ecs_be_prod.limit.RedisOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class RedisExceptionHandler {
+
+    @ExceptionHandler(RedisOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloaded(RedisOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(RedisResponses.message(e.getMessage()));
+    }
+}
@@ -0,0 +1,240 @@
+package me.geon.ecs_be_prod.controller;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import me.geon.ecs_be_prod.metrics.HotKeyTracker;
+import me.geon.ecs_be_prod.service.BulkImportResult;
+import me.geon.ecs_be_prod.service.KeyValueEntry;
+import me.geon.ecs_be_prod.service.LargeValueManifest;
+import me.geon.ecs_be_prod.service.ValueWithTtl;
+import me.geon.ecs_be_prod.service.VersionedWrite;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class RedisResponses {
+
+    private static final byte[] RAW_KEY = "{\"key\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RAW_FOUND = "\",\"found\":true,\"value\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RAW_NOT_FOUND =
+            "\",\"found\":false,\"message\":\"Key not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RAW_END = "}".getBytes(StandardCharsets.UTF_8);
+
+    private RedisResponses() {
+    }
+
+    public static Map<String, String> set(String key) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Value set successfully");
+        response.put("key", key);
+        return response;
+    }
+
+    public static Map<String, Object> get(String key, Object value) {
+        Map<String, Object> response = new HashMap<>();
+        if (value != null) {
+            response.put("key", key);
+            response.put("value", value);
+            response.put("found", true);
+        } else {
+            response.put("key", key);
+            response.put("found", false);
+            response.put("message", "Key not found");
+        }
+        return response;
+    }
+
+    public static byte[] escapeKey(String key) {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(key);
+    }
+
+    public static int rawGetLength(byte[] escapedKey, byte[] json) {
+        return rawGetLength(escapedKey, json, 0);
+    }
+
+    public static int rawGetLength(byte[] escapedKey, byte[] json, int offset) {
+        return json == null
+                ? RAW_KEY.length + escapedKey.length + RAW_NOT_FOUND.length
+                : RAW_KEY.length + escapedKey.length + RAW_FOUND.length + json.length - offset + RAW_END.length;
+    }
+
+    /**
+     * Writes the body {@link #get(String, Object)} would produce around a value that is already JSON, without
+     * decoding it. {@code null} means the key was not found.
+     */
+    public static void writeRawGet(OutputStream out, byte[] escapedKey, byte[] json) throws IOException {
+        writeRawGet(out, escapedKey, json, 0);
+    }
+
+    /**
+     * Like {@link #writeRawGet(OutputStream, byte[], byte[])} for JSON that starts at {@code offset}, so a stored
+     * header is skipped without copying the value.
+     */
+    public static void writeRawGet(OutputStream out, byte[] escapedKey, byte[] json, int offset) throws IOException {
+        out.write(RAW_KEY);
+        out.write(escapedKey);
+        if (json == null) {
+            out.write(RAW_NOT_FOUND);
+            return;
+        }
+        out.write(RAW_FOUND);
+        out.write(json, offset, json.length - offset);
+        out.write(RAW_END);
+    }
+
+    public static Map<String, Object> delete(String key, Boolean deleted) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("key", key);
+        response.put("deleted", deleted);
+        response.put("message", deleted ? "Key deleted successfully" : "Key not found");
+        return response;
+    }
+
+    public static Map<String, Object> exists(String key, Boolean exists) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("key", key);
+        response.put("exists", exists);
+        return response;
+    }
+
+    public static Map<String, Object> ttl(String key, Long ttl) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("key", key);
+        response.put("ttl", ttl);
+        response.put("message", ttl == -2 ? "Key does not exist" : 
+                                ttl == -1 ? "Key exists but has no expiration" : 
+                                "TTL in seconds: " + ttl);
+        return response;
+    }
+
+    public static Map<String, Object> getWithTtl(String key, ValueWithTtl result) {
+        Map<String, Object> response = get(key, result.value());
+        response.put("ttl", result.ttl());
+        return response;
+    }
+
+    public static Map<String, Object> setIfVersion(String key, VersionedWrite result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("key", key);
+        response.put("applied", result.applied());
+        response.put("version", result.version());
+        response.put("message", result.applied() ? "Value set successfully" : "Version mismatch");
+        return response;
+    }
+
+    public static Map<String, Object> largeValue(String key, LargeValueManifest manifest) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Value set successfully");
+        response.put("key", key);
+        response.put("size", manifest.size());
+        response.put("chunks", manifest.chunks());
+        return response;
+    }
+
+    public static Map<String, Object> mget(Map<String, Object> values) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        values.forEach((key, value) -> {
+            Map<String, Object> result = new HashMap<>();
+            result.put("key", key);
+            result.put("found", value != null);
+            if (value != null) {
+                result.put("value", value);
+            }
+            results.add(result);
+        });
+        return batch(results, "found", "found");
+    }
+
+    public static Map<String, Object> mset(Map<String, Boolean> written) {
+        return batch(perKey(written, "success"), "succeeded", "success");
+    }
+
+    public static Map<String, Object> mdelete(Map<String, Boolean> deleted) {
+        return batch(perKey(deleted, "deleted"), "deleted", "deleted");
+    }
+
+    public static Map<String, Object> hotKeys(List<HotKeyTracker.HotKey> hotKeys, double windowSeconds, double sampleRate) {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (HotKeyTracker.HotKey hotKey : hotKeys) {
+            Map<String, Object> key = new HashMap<>();
+            key.put("key", hotKey.key());
+            key.put("readsPerSecond", hotKey.readsPerSecond());
+            key.put("writesPerSecond", hotKey.writesPerSecond());
+            key.put("errorPerSecond", hotKey.errorPerSecond());
+            keys.add(key);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("windowSeconds", windowSeconds);
+        response.put("sampleRate", sampleRate);
+        response.put("keys", keys);
+        return response;
+    }
+
+    public static Map<String, Object> bulkImport(BulkImportResult result) {
+        List<Map<String, Object>> failures = new ArrayList<>();
+        for (BulkImportResult.Failure failure : result.failures()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("line", failure.line());
+            entry.put("key", failure.key());
+            entry.put("error", failure.error());
+            failures.add(entry);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("records", result.records());
+        response.put("written", result.written());
+        response.put("failed", result.failed());
+        response.put("elapsedMillis", result.elapsed().toMillis());
+        response.put("recordsPerSecond", result.recordsPerSecond());
+        response.put("failures", failures);
+        return response;
+    }
+
+    public static Map<String, Object> rejectEntries(List<KeyValueEntry> entries, int maxSize) {
+        if (entries.contains(null)) {
+            return message("Every entry must be an object with a key");
+        }
+        return rejectBatch(entries.stream().map(KeyValueEntry::key).toList(), maxSize);
+    }
+
+    public static Map<String, Object> rejectBatch(Collection<String> keys, int maxSize) {
+        if (keys.size() > maxSize) {
+            return message("Batch size exceeds limit of " + maxSize);
+        }
+        if (keys.stream().anyMatch(key -> key == null || key.isBlank())) {
+            return message("Every entry must have a non-empty key");
+        }
+        return null;
+    }
+
+    public static Map<String, Object> message(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", message);
+        return response;
+    }
+
+    private static List<Map<String, Object>> perKey(Map<String, Boolean> outcomes, String field) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        outcomes.forEach((key, outcome) -> {
+            Map<String, Object> result = new HashMap<>();
+            result.put("key", key);
+            result.put(field, outcome);
+            results.add(result);
+        });
+        return results;
+    }
+
+    private static Map<String, Object> batch(List<Map<String, Object>> results, String summaryField, String flagField) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", results.size());
+        response.put(summaryField, results.stream().filter(result -> (Boolean) result.get(flagField)).count());
+        response.put("results", results);
+        return response;
+    }
+}
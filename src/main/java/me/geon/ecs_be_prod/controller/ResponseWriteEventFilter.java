@@ -0,0 +1,127 @@
+package me.geon.ecs_be_prod.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import me.geon.ecs_be_prod.metrics.RedisResponseEvent;
+import me.geon.ecs_be_prod.metrics.RedisTrace;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Emits a {@link RedisResponseEvent} for {@code /api/redis} responses while a JFR recording has it enabled.
+ * Counts bytes written through the response output stream, from the first write until the handler returns.
+ * Async responses ({@code /watch}, {@code /scan}) outlive the filter and are not recorded; {@code /large} writes
+ * synchronously and is.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ResponseWriteEventFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "/api/redis/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RedisResponseEvent event = new RedisResponseEvent();
+        if (!event.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CountingResponse counting = new CountingResponse(response, event);
+        chain.doFilter(request, counting);
+        if (request.isAsyncStarted() || !counting.written) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = request.getRequestURI().substring(PREFIX.length());
+            event.keyHash = RedisTrace.hash(request.getParameter("key"));
+            event.status = response.getStatus();
+            event.bytes = counting.bytes;
+            event.commit();
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private final RedisResponseEvent event;
+        private ServletOutputStream stream;
+        private boolean written;
+        private long bytes;
+
+        CountingResponse(HttpServletResponse response, RedisResponseEvent event) {
+            super(response);
+            this.event = event;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                stream = new CountingStream(super.getOutputStream());
+            }
+            return stream;
+        }
+
+        private void writing(int length) {
+            if (!written) {
+                written = true;
+                event.begin();
+            }
+            bytes += length;
+        }
+
+        private final class CountingStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            CountingStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                writing(1);
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing(len);
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                delegate.setWriteListener(listener);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package me.geon.ecs_be_prod.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.PoolException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Gradient concurrency limit in the style of Netflix concurrency-limits' Gradient2.
+ * <p>
+ * A long-window average RTT serves as the no-load baseline. While a sample stays within {@code tolerance} of it
+ * the limit grows by about {@code sqrt(limit)}; once calls start queueing on the pool and RTT climbs, the limit is
+ * scaled down by {@code baseline / rtt} (at most halved per sample). Timeouts and pool exhaustion multiply it by
+ * {@code backoff-ratio}. Calls above the limit fail fast with {@link RedisOverloadedException}.
+ * <p>
+ * The estimated limit and the long RTT are packed as two floats into one {@code long} and updated with a CAS
+ * loop, so samples from concurrent calls never block each other or pin a virtual thread's carrier.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final AppRedisProperties.Limiter properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong state;
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(AppRedisProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getLimiter();
+        this.state = new AtomicLong(pack(this.properties.getInitialLimit(), 0));
+        this.rejected = meterRegistry.counter("redis.limiter.rejected");
+        meterRegistry.gauge("redis.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("redis.limiter.in-flight", inFlight);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+        int current = acquire();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onSample(System.nanoTime() - start, current, false);
+            return result;
+        } catch (RuntimeException e) {
+            if (isOverload(e)) {
+                onSample(System.nanoTime() - start, current, true);
+            }
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reactive variant: the permit is taken on subscribe and returned when the call completes, fails or is
+     * cancelled. A cancelled call gives no RTT sample.
+     */
+    public <T> Mono<T> execute(Mono<T> call) {
+        if (!properties.isEnabled()) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            int current = acquire();
+            long start = System.nanoTime();
+            Throwable[] failure = new Throwable[1];
+            return call
+                    .doOnError(e -> failure[0] = e)
+                    .doFinally(signal -> {
+                        if (signal != SignalType.CANCEL) {
+                            if (failure[0] == null) {
+                                onSample(System.nanoTime() - start, current, false);
+                            } else if (failure[0] instanceof RuntimeException e && isOverload(e)) {
+                                onSample(System.nanoTime() - start, current, true);
+                            }
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        });
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit(state.get());
+    }
+
+    private int acquire() {
+        int current = inFlight.incrementAndGet();
+        int limit = getLimit();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            throw new RedisOverloadedException(limit);
+        }
+        return current;
+    }
+
+    void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            double estimatedLimit = estimatedLimit(current);
+            double longRtt = longRtt(current);
+            double newLimit = estimatedLimit;
+            if (dropped) {
+                newLimit = estimatedLimit * properties.getBackoffRatio();
+            } else {
+                double rtt = Math.max(1, rttNanos);
+                longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / properties.getLongWindow();
+                if (longRtt / rtt > 2) {
+                    longRtt *= 0.95;
+                }
+                if (inFlightAtStart >= estimatedLimit / 2) {
+                    double gradient = Math.max(0.5, Math.min(1.0, properties.getTolerance() * longRtt / rtt));
+                    newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+                    newLimit = estimatedLimit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing();
+                }
+            }
+            newLimit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+            next = pack(newLimit, longRtt);
+        } while (!state.compareAndSet(current, next));
+    }
+
+    private static long pack(double estimatedLimit, double longRtt) {
+        return ((long) Float.floatToRawIntBits((float) estimatedLimit) << 32)
+                | (Float.floatToRawIntBits((float) longRtt) & 0xFFFFFFFFL);
+    }
+
+    private static double estimatedLimit(long state) {
+        return Float.intBitsToFloat((int) (state >>> 32));
+    }
+
+    private static double longRtt(long state) {
+        return Float.intBitsToFloat((int) state);
+    }
+
+    private static boolean isOverload(RuntimeException e) {
+        return e instanceof QueryTimeoutException
+                || e instanceof RedisConnectionFailureException
+                || e instanceof PoolException;
+    }
+}
@@ -0,0 +1,8 @@
+package me.geon.ecs_be_prod.limit;
+
+public class RedisOverloadedException extends RuntimeException {
+
+    public RedisOverloadedException(int limit) {
+        super("Redis concurrency limit of " + limit + " reached, retry later");
+    }
+}
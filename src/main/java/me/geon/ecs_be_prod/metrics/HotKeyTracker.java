@@ -0,0 +1,136 @@
+package me.geon.ecs_be_prod.metrics;
+
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Samples key accesses into a ring of Space-Saving sketches, one pair (reads, writes) per time bucket.
+ * Memory is bounded by {@code buckets * 2 * capacity} counters regardless of how many distinct keys are seen.
+ * <p>
+ * Each bucket is split into stripes by key hash, each with its own lock and a share of the capacity, so
+ * concurrent requests only contend when their keys land on the same stripe. A key always maps to one stripe,
+ * so merging the stripes on read needs no extra error bound.
+ */
+@Component
+public class HotKeyTracker {
+
+    // Keeps each stripe's sketch large enough for its error bound to stay useful.
+    private static final int MIN_STRIPE_CAPACITY = 16;
+
+    private final AppRedisProperties.HotKeys properties;
+    private final long bucketMillis;
+    private final int stripeMask;
+    private final Stripe[][] buckets;
+
+    public HotKeyTracker(AppRedisProperties properties) {
+        this.properties = properties.getHotKeys();
+        this.bucketMillis = Math.max(1, this.properties.getWindow().toMillis() / this.properties.getBuckets());
+        int capacity = this.properties.getCapacity();
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(
+                Runtime.getRuntime().availableProcessors(), capacity / MIN_STRIPE_CAPACITY)));
+        this.stripeMask = stripes - 1;
+        this.buckets = new Stripe[this.properties.getBuckets()][stripes];
+        for (Stripe[] bucket : buckets) {
+            for (int i = 0; i < stripes; i++) {
+                bucket[i] = new Stripe(Math.max(1, capacity / stripes));
+            }
+        }
+    }
+
+    public void recordRead(String key) {
+        record(key, true);
+    }
+
+    public void recordWrite(String key) {
+        record(key, false);
+    }
+
+    public double windowSeconds() {
+        return bucketMillis * buckets.length / 1000.0;
+    }
+
+    public List<HotKey> top(int limit) {
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        Map<String, long[]> reads = new HashMap<>();
+        Map<String, long[]> writes = new HashMap<>();
+        for (Stripe[] bucket : buckets) {
+            for (Stripe stripe : bucket) {
+                stripe.lock.lock();
+                try {
+                    if (epoch - stripe.epoch < buckets.length) {
+                        stripe.reads.addTo(reads);
+                        stripe.writes.addTo(writes);
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+
+        double scale = 1.0 / (properties.getSampleRate() * windowSeconds());
+        Set<String> keys = new HashSet<>(reads.keySet());
+        keys.addAll(writes.keySet());
+        List<HotKey> hotKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            long[] read = reads.getOrDefault(key, new long[2]);
+            long[] write = writes.getOrDefault(key, new long[2]);
+            hotKeys.add(new HotKey(key, read[0] * scale, write[0] * scale, (read[1] + write[1]) * scale));
+        }
+        hotKeys.sort(Comparator.comparingDouble(HotKey::totalPerSecond).reversed());
+        return hotKeys.size() > limit ? new ArrayList<>(hotKeys.subList(0, limit)) : hotKeys;
+    }
+
+    private void record(String key, boolean read) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.getSampleRate() < 1.0 && ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return;
+        }
+
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        int hash = key.hashCode();
+        Stripe stripe = buckets[(int) (epoch % buckets.length)][(hash ^ (hash >>> 16)) & stripeMask];
+        stripe.lock.lock();
+        try {
+            if (stripe.epoch != epoch) {
+                stripe.epoch = epoch;
+                stripe.reads.clear();
+                stripe.writes.clear();
+            }
+            (read ? stripe.reads : stripe.writes).offer(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public record HotKey(String key, double readsPerSecond, double writesPerSecond, double errorPerSecond) {
+
+        public double totalPerSecond() {
+            return readsPerSecond + writesPerSecond;
+        }
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final SpaceSavingSketch reads;
+        private final SpaceSavingSketch writes;
+        private long epoch = -1;
+
+        private Stripe(int capacity) {
+            this.reads = new SpaceSavingSketch(capacity);
+            this.writes = new SpaceSavingSketch(capacity);
+        }
+    }
+}
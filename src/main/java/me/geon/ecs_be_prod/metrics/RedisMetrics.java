@@ -0,0 +1,83 @@
+package me.geon.ecs_be_prod.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class RedisMetrics {
+
+    public static final String OPERATION_TIMER = "redis.operation";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public RedisMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String operation, Supplier<T> call) {
+        return record(operation, null, call);
+    }
+
+    /**
+     * Also emits a {@link RedisOperationEvent} when a JFR recording has it enabled, with {@code key} recorded
+     * as a hash.
+     */
+    public <T> T record(String operation, String key, Supplier<T> call) {
+        RedisOperationEvent event = new RedisOperationEvent();
+        RedisTrace trace = null;
+        if (event.isEnabled()) {
+            event.begin();
+            trace = RedisTrace.begin(key);
+        }
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(operation, outcome).record(elapsed, TimeUnit.NANOSECONDS);
+            if (trace != null) {
+                trace.end(event, operation, elapsed, outcome);
+            }
+        }
+    }
+
+    /**
+     * Reactive variant, timed from subscribe to the terminal signal. No JFR event is emitted because the call does
+     * not stay on one thread; a cancelled call is not recorded.
+     */
+    public <T> Mono<T> record(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(result -> timer(operation, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> timer(operation, "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public void run(String operation, Runnable call) {
+        record(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return timers.computeIfAbsent(operation + ':' + outcome, name -> Timer.builder(OPERATION_TIMER)
+                .description("RedisService operation latency, including pool wait and serialization")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
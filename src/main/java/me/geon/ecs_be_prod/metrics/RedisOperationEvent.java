@@ -0,0 +1,51 @@
+package me.geon.ecs_be_prod.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code RedisService} call with its time split into phases. {@code roundTrip} is what remains after pool
+ * wait and serialization: the command round trip plus client-side work such as waiting on a single-flight leader.
+ */
+@Name(RedisOperationEvent.NAME)
+@Label("Redis Operation")
+@Category("Redis")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RedisOperationEvent extends Event {
+
+    public static final String NAME = "me.geon.redis.Operation";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Key Hash")
+    @Description("String.hashCode() of the key, 0 for multi-key operations")
+    public int keyHash;
+
+    @Label("Payload")
+    @DataAmount
+    public long payloadBytes;
+
+    @Label("Pool Wait")
+    @Timespan
+    public long poolWait;
+
+    @Label("Serialization")
+    @Timespan
+    public long serialization;
+
+    @Label("Round Trip")
+    @Timespan
+    public long roundTrip;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,93 @@
+package me.geon.ecs_be_prod.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * Publishes the commons-pool2 pools behind the Lettuce connection factory. The pools are created lazily and
+ * are not reachable through the factory's API, so the gauges read the JMX beans commons-pool2 registers for
+ * every pool and sum them up at scrape time.
+ */
+@Component
+public class RedisPoolMetrics implements MeterBinder {
+
+    private static final String POOL_PATTERN = "org.apache.commons.pool2:type=GenericObjectPool,*";
+
+    // commons-pool2 keeps the mean borrow wait over the last 100 borrows of each pool.
+    private static final int MEAN_WINDOW = 100;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "redis.pool.active", "NumActive", "Connections borrowed from the pool");
+        gauge(registry, "redis.pool.idle", "NumIdle", "Idle connections in the pool");
+        gauge(registry, "redis.pool.waiting", "NumWaiters", "Threads waiting to borrow a connection");
+        Gauge.builder("redis.pool.borrow.wait.max", this, metrics -> metrics.max("MaxBorrowWaitTimeMillis"))
+                .description("Longest time a thread waited to borrow a connection")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("redis.pool.borrow.wait.mean", this, RedisPoolMetrics::meanBorrowWait)
+                .description("Mean time threads waited to borrow a connection, weighted by each pool's recent borrows")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String attribute, String description) {
+        Gauge.builder(name, this, metrics -> metrics.sum(attribute))
+                .description(description)
+                .baseUnit("connections")
+                .register(registry);
+    }
+
+    private double sum(String attribute) {
+        double total = 0;
+        for (ObjectName pool : pools()) {
+            total += read(pool, attribute);
+        }
+        return total;
+    }
+
+    private double max(String attribute) {
+        double max = 0;
+        for (ObjectName pool : pools()) {
+            max = Math.max(max, read(pool, attribute));
+        }
+        return max;
+    }
+
+    private double meanBorrowWait() {
+        double weightedTotal = 0;
+        double borrows = 0;
+        for (ObjectName pool : pools()) {
+            double weight = Math.min(read(pool, "BorrowedCount"), MEAN_WINDOW);
+            weightedTotal += read(pool, "MeanBorrowWaitTimeMillis") * weight;
+            borrows += weight;
+        }
+        return borrows == 0 ? 0 : weightedTotal / borrows;
+    }
+
+    private Set<ObjectName> pools() {
+        try {
+            return mBeanServer.queryNames(new ObjectName(POOL_PATTERN), null);
+        } catch (JMException e) {
+            return Set.of();
+        }
+    }
+
+    private double read(ObjectName pool, String attribute) {
+        try {
+            return ((Number) mBeanServer.getAttribute(pool, attribute)).doubleValue();
+        } catch (JMException | ClassCastException e) {
+            return 0;
+        }
+    }
+}
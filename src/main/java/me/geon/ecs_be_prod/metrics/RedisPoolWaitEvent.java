@@ -0,0 +1,25 @@
+package me.geon.ecs_be_prod.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Time a pipeline waited for a dedicated connection from the Lettuce pool. Single commands use the shared
+ * connection and never wait.
+ */
+@Name(RedisPoolWaitEvent.NAME)
+@Label("Redis Pool Wait")
+@Category("Redis")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RedisPoolWaitEvent extends Event {
+
+    public static final String NAME = "me.geon.redis.PoolWait";
+
+    @Label("Key Hash")
+    public int keyHash;
+}
@@ -0,0 +1,35 @@
+package me.geon.ecs_be_prod.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Writing an {@code /api/redis} response body, from the first byte written until the response is complete.
+ */
+@Name(RedisResponseEvent.NAME)
+@Label("Redis API Response Write")
+@Category("Redis")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RedisResponseEvent extends Event {
+
+    public static final String NAME = "me.geon.redis.ResponseWrite";
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Key Hash")
+    public int keyHash;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Body Size")
+    @DataAmount
+    public long bytes;
+}
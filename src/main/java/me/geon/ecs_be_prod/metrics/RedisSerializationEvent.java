@@ -0,0 +1,29 @@
+package me.geon.ecs_be_prod.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name(RedisSerializationEvent.NAME)
+@Label("Redis Value Serialization")
+@Category("Redis")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RedisSerializationEvent extends Event {
+
+    public static final String NAME = "me.geon.redis.Serialization";
+
+    @Label("Direction")
+    public String direction;
+
+    @Label("Key Hash")
+    public int keyHash;
+
+    @Label("Payload")
+    @DataAmount
+    public long payloadBytes;
+}
@@ -0,0 +1,109 @@
+package me.geon.ecs_be_prod.metrics;
+
+/**
+ * Per-thread phase totals of the {@link RedisOperationEvent} being recorded, so the pool wait and serialization
+ * that happen deep inside the Redis client can be attributed to the operation and its key. Only exists while the
+ * event is enabled; otherwise every method is a thread-local lookup that finds nothing.
+ * <p>
+ * Work that {@code RedisShards} fans out to its executor runs on other threads and is not attributed.
+ */
+public final class RedisTrace {
+
+    private static final ThreadLocal<RedisTrace> CURRENT = new ThreadLocal<>();
+
+    private final RedisTrace previous;
+    private final int keyHash;
+    private long poolWait;
+    private long serialization;
+    private long payloadBytes;
+
+    private RedisTrace(RedisTrace previous, int keyHash) {
+        this.previous = previous;
+        this.keyHash = keyHash;
+    }
+
+    static RedisTrace begin(String key) {
+        RedisTrace trace = new RedisTrace(CURRENT.get(), hash(key));
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    void end(RedisOperationEvent event, String operation, long elapsedNanos, String outcome) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.keyHash = keyHash;
+            event.payloadBytes = payloadBytes;
+            event.poolWait = poolWait;
+            event.serialization = serialization;
+            event.roundTrip = Math.max(0, elapsedNanos - poolWait - serialization);
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Key hash of the operation running on this thread, 0 when there is none.
+     */
+    public static int currentKeyHash() {
+        RedisTrace trace = CURRENT.get();
+        return trace == null ? 0 : trace.keyHash;
+    }
+
+    static void serialized(long nanos, int bytes) {
+        RedisTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.serialization += nanos;
+            trace.payloadBytes += bytes;
+        }
+    }
+
+    /**
+     * Recorded as a hash so recordings do not carry key names.
+     */
+    public static int hash(String key) {
+        return key == null ? 0 : key.hashCode();
+    }
+
+    /**
+     * Call right before a pipelined call; the pipeline borrows its connection before running the callback.
+     */
+    public static ConnectionWait connectionWait() {
+        return new ConnectionWait();
+    }
+
+    public static final class ConnectionWait {
+
+        private final RedisPoolWaitEvent event = new RedisPoolWaitEvent();
+        private final long start = System.nanoTime();
+        private boolean acquired;
+
+        private ConnectionWait() {
+            event.begin();
+        }
+
+        /**
+         * Call first thing inside the pipeline callback.
+         */
+        public void acquired() {
+            if (acquired) {
+                return;
+            }
+            acquired = true;
+            event.end();
+            RedisTrace trace = CURRENT.get();
+            if (trace != null) {
+                trace.poolWait += System.nanoTime() - start;
+            }
+            if (event.shouldCommit()) {
+                event.keyHash = trace == null ? 0 : trace.keyHash;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package me.geon.ecs_be_prod.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter sketch (Metwally et al.). Holds at most {@code capacity} counters; an unseen key
+ * replaces the smallest counter and inherits its count as the error bound. Any key whose true frequency is
+ * above {@code total / capacity} is guaranteed to be present. Not thread-safe.
+ * <p>
+ * Counters are kept in the paper's Stream-Summary layout: a list of count groups in ascending order, each
+ * holding the counters that share its count. Incrementing moves a counter to the neighbouring group and
+ * eviction takes any counter from the first group, so both are O(1).
+ */
+final class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private Group smallest;
+
+    SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void offer(String key) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            increment(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(key);
+            counters.put(key, counter);
+            if (smallest == null || smallest.count != 1) {
+                Group group = new Group(1);
+                group.next = smallest;
+                if (smallest != null) {
+                    smallest.previous = group;
+                }
+                smallest = group;
+            }
+            smallest.add(counter);
+            return;
+        }
+
+        Counter victim = smallest.first;
+        counters.remove(victim.key);
+        victim.key = key;
+        victim.error = smallest.count;
+        counters.put(key, victim);
+        increment(victim);
+    }
+
+    void clear() {
+        counters.clear();
+        smallest = null;
+    }
+
+    void addTo(Map<String, long[]> totals) {
+        counters.forEach((key, counter) -> {
+            long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+            total[0] += counter.group.count;
+            total[1] += counter.error;
+        });
+    }
+
+    private void increment(Counter counter) {
+        Group current = counter.group;
+        Group target = current.next;
+        if (target == null || target.count != current.count + 1) {
+            target = new Group(current.count + 1);
+            target.previous = current;
+            target.next = current.next;
+            if (current.next != null) {
+                current.next.previous = target;
+            }
+            current.next = target;
+        }
+        current.remove(counter);
+        target.add(counter);
+
+        if (current.first == null) {
+            if (current.previous != null) {
+                current.previous.next = current.next;
+            } else {
+                smallest = current.next;
+            }
+            current.next.previous = current.previous;
+        }
+    }
+
+    private static final class Counter {
+
+        private String key;
+        private long error;
+        private Group group;
+        private Counter previous;
+        private Counter next;
+
+        private Counter(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Group {
+
+        private final long count;
+        private Counter first;
+        private Group previous;
+        private Group next;
+
+        private Group(long count) {
+            this.count = count;
+        }
+
+        private void add(Counter counter) {
+            counter.group = this;
+            counter.previous = null;
+            counter.next = first;
+            if (first != null) {
+                first.previous = counter;
+            }
+            first = counter;
+        }
+
+        private void remove(Counter counter) {
+            if (counter.previous != null) {
+                counter.previous.next = counter.next;
+            } else {
+                first = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.previous = counter.previous;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package me.geon.ecs_be_prod.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.concurrent.TimeUnit;
+
+public class TimedRedisSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegate;
+    private final Timer encodeTimer;
+    private final Timer decodeTimer;
+    private final DistributionSummary payloadSize;
+
+    public TimedRedisSerializer(RedisSerializer<Object> delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.decodeTimer = timer(meterRegistry, "decode");
+        this.payloadSize = DistributionSummary.builder("redis.serialization.payload")
+                .description("Serialized value size")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        RedisSerializationEvent event = new RedisSerializationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(value);
+        long elapsed = System.nanoTime() - start;
+        encodeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (bytes != null) {
+            payloadSize.record(bytes.length);
+        }
+        traced(event, "encode", elapsed, bytes);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        RedisSerializationEvent event = new RedisSerializationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Object value = delegate.deserialize(bytes);
+        long elapsed = System.nanoTime() - start;
+        decodeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        traced(event, "decode", elapsed, bytes);
+        return value;
+    }
+
+    public RedisSerializer<Object> getDelegate() {
+        return delegate;
+    }
+
+    private static void traced(RedisSerializationEvent event, String direction, long elapsed, byte[] bytes) {
+        int size = bytes == null ? 0 : bytes.length;
+        RedisTrace.serialized(elapsed, size);
+        event.end();
+        if (event.shouldCommit()) {
+            event.direction = direction;
+            event.keyHash = RedisTrace.currentKeyHash();
+            event.payloadBytes = size;
+            event.commit();
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String direction) {
+        return Timer.builder("redis.serialization")
+                .description("Value serializer time")
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,315 @@
+package me.geon.ecs_be_prod.service;
+
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Opt-in layout that stores each key as a field of one of {@code count} hashes ({@code <prefix><n>}) instead of
+ * as a top-level key. With about 100 fields per bucket the hashes stay within {@code hash-max-listpack-entries},
+ * so Redis keeps them in the compact listpack encoding and the per-key dictionary and object overhead goes away.
+ * <p>
+ * Field TTLs use {@code HPEXPIRE} on Redis 7.4 and later. On older servers, or with {@code ttl-mode: emulated},
+ * the expiry time is stored in front of the value as {@code <millis>|<value>}; reads treat expired fields as
+ * missing and delete them, and a background sweep walks {@code sweep-batch} buckets every {@code sweep-interval}
+ * to remove expired fields nobody reads. Both layouts go through Lua scripts, so each operation stays atomic.
+ * The mode must not change while data is stored, as the two layouts are not readable by each other.
+ */
+@Component
+public class BucketStore implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BucketStore.class);
+
+    private static final byte[] NATIVE = {'1'};
+    private static final byte[] EMULATED = {'0'};
+    private static final int SCAN_BUCKETS = 64;
+
+    private static final byte[] GET_SOURCE = source(LuaScripts.BUCKET_GET);
+    private static final byte[] SET_SOURCE = source(LuaScripts.BUCKET_SET);
+    private static final byte[] DELETE_SOURCE = source(LuaScripts.BUCKET_DELETE);
+
+    private final AppRedisProperties.Buckets properties;
+    private final RedisShards shards;
+    private final ScheduledExecutorService sweeper;
+    private volatile Boolean nativeTtl;
+    private int sweepCursor;
+
+    public BucketStore(AppRedisProperties properties, RedisShards shards) {
+        this.properties = properties.getBuckets();
+        this.shards = shards;
+        if (this.properties.isEnabled()) {
+            long interval = this.properties.getSweepInterval().toMillis();
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "redis-bucket-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            sweeper = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String bucketOf(String key) {
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return properties.getPrefix() + crc.getValue() % properties.getCount();
+    }
+
+    /**
+     * Whether field TTLs use {@code HPEXPIRE}. Resolved once; {@code auto} checks that every shard runs 7.4+.
+     * Uses its own connections, so it is safe to call while a pipeline is open on this thread.
+     */
+    public boolean nativeTtl() {
+        Boolean resolved = nativeTtl;
+        if (resolved == null) {
+            resolved = switch (properties.getTtlMode()) {
+                case NATIVE -> true;
+                case EMULATED -> false;
+                case AUTO -> shards.all().stream().allMatch(BucketStore::supportsFieldTtl);
+            };
+            nativeTtl = resolved;
+            log.info("Bucketed storage uses {} field TTLs", resolved ? "native" : "emulated");
+        }
+        return resolved;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ValueWithTtl get(RedisTemplate<String, Object> template, String key, Duration refresh) {
+        List<Object> result = template.execute(LuaScripts.BUCKET_GET, RedisSerializer.byteArray(),
+                (RedisSerializer<List>) (RedisSerializer) template.getValueSerializer(),
+                List.of(bucketOf(key)), field(key), mode(), millis(refresh));
+        return new ValueWithTtl(result.get(0), (Long) result.get(1));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public byte[] getRaw(RedisTemplate<String, Object> template, String key) {
+        List<Object> result = template.execute(LuaScripts.BUCKET_GET, RedisSerializer.byteArray(),
+                (RedisSerializer<List>) (RedisSerializer) RedisSerializer.byteArray(),
+                List.of(bucketOf(key)), field(key), mode(), millis(null));
+        return (byte[]) result.get(0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void set(RedisTemplate<String, Object> template, String key, Object value, Duration ttl) {
+        byte[] payload = ((RedisSerializer<Object>) template.getValueSerializer()).serialize(value);
+        template.execute(LuaScripts.BUCKET_SET, RedisSerializer.byteArray(),
+                (RedisSerializer<Long>) (RedisSerializer) RedisSerializer.byteArray(),
+                List.of(bucketOf(key)), field(key), payload, millis(ttl), mode());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean delete(RedisTemplate<String, Object> template, String key) {
+        Long deleted = template.execute(LuaScripts.BUCKET_DELETE, RedisSerializer.byteArray(),
+                (RedisSerializer<Long>) (RedisSerializer) RedisSerializer.byteArray(),
+                List.of(bucketOf(key)), field(key), mode());
+        return deleted != null && deleted == 1;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean expire(RedisTemplate<String, Object> template, String key, Duration ttl) {
+        Long applied = template.execute(LuaScripts.BUCKET_EXPIRE, RedisSerializer.byteArray(),
+                (RedisSerializer<Long>) (RedisSerializer) RedisSerializer.byteArray(),
+                List.of(bucketOf(key)), field(key), ascii(ttl.toMillis()), mode());
+        return applied != null && applied == 1;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public VersionedWrite setIfVersion(RedisTemplate<String, Object> template, String key, String versionKey,
+                                       Object value, long expectedVersion, Duration ttl) {
+        byte[] payload = ((RedisSerializer<Object>) template.getValueSerializer()).serialize(value);
+        List<Long> result = template.execute(LuaScripts.BUCKET_SET_IF_VERSION, RedisSerializer.byteArray(),
+                (RedisSerializer<List>) (RedisSerializer) RedisSerializer.byteArray(),
+                List.of(bucketOf(key), versionKey),
+                field(key), ascii(expectedVersion), payload, ascii(ttl == null ? 0 : ttl.toSeconds()), mode());
+        return new VersionedWrite(result.get(0) == 1, result.get(1));
+    }
+
+    /**
+     * Queues a read on an open pipeline. Its result is a {@code [value, ttl]} list like {@link #get}.
+     * Pipelined commands use {@code EVAL}, since a {@code NOSCRIPT} reply cannot be retried inside a pipeline.
+     */
+    public void get(RedisOperations<String, Object> operations, String key) {
+        byte[][] keysAndArgs = {bytes(bucketOf(key)), field(key), mode(), millis(null)};
+        operations.execute((RedisCallback<Object>) connection ->
+                connection.scriptingCommands().eval(GET_SOURCE, ReturnType.MULTI, 1, keysAndArgs));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void set(RedisOperations<String, Object> operations, String key, Object value, Duration ttl) {
+        byte[] payload = ((RedisSerializer<Object>) operations.getValueSerializer()).serialize(value);
+        byte[][] keysAndArgs = {bytes(bucketOf(key)), field(key), payload, millis(ttl), mode()};
+        operations.execute((RedisCallback<Object>) connection ->
+                connection.scriptingCommands().eval(SET_SOURCE, ReturnType.INTEGER, 1, keysAndArgs));
+    }
+
+    public void delete(RedisOperations<String, Object> operations, String key) {
+        byte[][] keysAndArgs = {bytes(bucketOf(key)), field(key), mode()};
+        operations.execute((RedisCallback<Object>) connection ->
+                connection.scriptingCommands().eval(DELETE_SOURCE, ReturnType.INTEGER, 1, keysAndArgs));
+    }
+
+    /**
+     * Hands the keys stored on {@code template} that match the glob {@code match} to {@code chunks}, up to
+     * {@code count} at a time. Field names of {@link #SCAN_BUCKETS} buckets are fetched per round trip; emulated
+     * fields that already expired are included and have to be filtered by the caller's read.
+     */
+    public void scanKeys(RedisTemplate<String, Object> template, String match, int count, Consumer<List<String>> chunks) {
+        Pattern pattern = globPattern(match);
+        List<String> keys = new ArrayList<>(count);
+        for (int from = 0; from < properties.getCount(); from += SCAN_BUCKETS) {
+            int first = from;
+            int last = Math.min(properties.getCount(), from + SCAN_BUCKETS);
+            List<Object> fieldsPerBucket = template.executePipelined((RedisCallback<Object>) connection -> {
+                for (int bucket = first; bucket < last; bucket++) {
+                    connection.hashCommands().hKeys(bytes(properties.getPrefix() + bucket));
+                }
+                return null;
+            }, RedisSerializer.string());
+
+            for (Object fields : fieldsPerBucket) {
+                for (Object field : (Collection<?>) fields) {
+                    String key = (String) field;
+                    if (!pattern.matcher(key).matches()) {
+                        continue;
+                    }
+                    keys.add(key);
+                    if (keys.size() >= count) {
+                        chunks.accept(keys);
+                        keys = new ArrayList<>(count);
+                    }
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            chunks.accept(keys);
+        }
+    }
+
+    /**
+     * Redis glob syntax ({@code * ? [abc] [^a-z] \x}) as a regular expression.
+     */
+    static Pattern globPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                case '\\' -> {
+                    if (i + 1 < glob.length()) {
+                        regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                    }
+                }
+                case '[' -> {
+                    int end = glob.indexOf(']', i + 1);
+                    if (end < 0) {
+                        regex.append("\\[");
+                        break;
+                    }
+                    String members = glob.substring(i + 1, end);
+                    boolean negated = members.startsWith("^");
+                    regex.append('[').append(negated ? "^" : "")
+                            .append(members.substring(negated ? 1 : 0).replace("\\", "\\\\").replace("[", "\\[").replace("&", "\\&"))
+                            .append(']');
+                    i = end;
+                }
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private void sweep() {
+        try {
+            if (nativeTtl()) {
+                sweeper.shutdown();
+                return;
+            }
+            int batch = Math.min(properties.getSweepBatch(), properties.getCount());
+            List<String> buckets = new ArrayList<>(batch);
+            for (int i = 0; i < batch; i++) {
+                buckets.add(properties.getPrefix() + (sweepCursor + i) % properties.getCount());
+            }
+            sweepCursor = (sweepCursor + batch) % properties.getCount();
+            for (RedisTemplate<String, Object> template : shards.all()) {
+                template.execute(LuaScripts.BUCKET_SWEEP, buckets);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Bucket sweep failed", e);
+        }
+    }
+
+    private static boolean supportsFieldTtl(RedisTemplate<String, Object> template) {
+        try (RedisConnection connection = Objects.requireNonNull(template.getConnectionFactory()).getConnection()) {
+            Properties info = connection.serverCommands().info("server");
+            String version = info == null ? null : info.getProperty("redis_version");
+            if (version == null) {
+                return false;
+            }
+            String[] parts = version.split("\\.");
+            int major = Integer.parseInt(parts[0]);
+            int minor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            return major > 7 || (major == 7 && minor >= 4);
+        }
+    }
+
+    private byte[] mode() {
+        return nativeTtl() ? NATIVE : EMULATED;
+    }
+
+    private static byte[] field(String key) {
+        return bytes(key);
+    }
+
+    private static byte[] millis(Duration duration) {
+        return ascii(duration == null ? 0 : duration.toMillis());
+    }
+
+    private static byte[] ascii(long number) {
+        return Long.toString(number).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] source(RedisScript<?> script) {
+        return bytes(script.getScriptAsString());
+    }
+
+    @Override
+    public void destroy() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+}
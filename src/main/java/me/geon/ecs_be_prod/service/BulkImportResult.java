@@ -0,0 +1,15 @@
+package me.geon.ecs_be_prod.service;
+
+import java.time.Duration;
+import java.util.List;
+
+public record BulkImportResult(long records, long written, long failed, List<Failure> failures, Duration elapsed) {
+
+    public double recordsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : written * 1_000_000_000.0 / nanos;
+    }
+
+    public record Failure(long line, String key, String error) {
+    }
+}
@@ -0,0 +1,207 @@
+package me.geon.ecs_be_prod.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads key/value/ttl records line by line and writes them through {@link RedisService#setValues(List)} in
+ * batches of {@code batch-size}, so memory stays bounded by one batch plus the capped failure list.
+ * <p>
+ * A batch never holds the same key twice: a repeated key flushes the batch first. {@code setValues} keeps only
+ * the last entry per key, so this keeps every record matched to its own write result and the writes in order.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final AppRedisProperties.BulkImport properties;
+
+    public BulkImportService(RedisService redisService, ObjectMapper objectMapper, AppRedisProperties properties) {
+        this.redisService = redisService;
+        this.objectMapper = objectMapper;
+        this.properties = properties.getBulkImport();
+    }
+
+    public BulkImportResult importNdjson(InputStream body) throws IOException {
+        return importLines(body, (line, number) -> objectMapper.readValue(line, KeyValueEntry.class));
+    }
+
+    /**
+     * Each line is {@code key,value[,ttl]}; fields may be double-quoted, but a quoted field cannot span lines.
+     * A first line of {@code key,value,ttl} is treated as a header.
+     */
+    public BulkImportResult importCsv(InputStream body) throws IOException {
+        return importLines(body, (line, number) ->
+                number == 1 && line.trim().toLowerCase(Locale.ROOT).startsWith("key,value") ? null : parseCsv(line));
+    }
+
+    private BulkImportResult importLines(InputStream body, LineParser parser) throws IOException {
+        long started = System.nanoTime();
+        Progress progress = new Progress(properties.getMaxReportedFailures());
+        List<Line> batch = new ArrayList<>(properties.getBatchSize());
+        Set<String> batchKeys = new HashSet<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        long number = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            KeyValueEntry entry;
+            try {
+                entry = parser.parse(line, number);
+            } catch (JsonProcessingException e) {
+                progress.fail(number, null, e.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                progress.fail(number, null, e.getMessage());
+                continue;
+            }
+            if (entry == null) {
+                continue;
+            }
+            if (entry.key() == null || entry.key().isBlank()) {
+                progress.fail(number, null, "Key must not be empty");
+                continue;
+            }
+
+            if (!batchKeys.add(entry.key())) {
+                write(batch, progress);
+                batch.clear();
+                batchKeys.clear();
+                batchKeys.add(entry.key());
+            }
+            batch.add(new Line(number, entry));
+            if (batch.size() >= properties.getBatchSize()) {
+                write(batch, progress);
+                batch.clear();
+                batchKeys.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, progress);
+        }
+
+        BulkImportResult result = progress.result(Duration.ofNanos(System.nanoTime() - started));
+        log.info("Imported {} of {} records in {} ms ({} failed)",
+                result.written(), result.records(), result.elapsed().toMillis(), result.failed());
+        return result;
+    }
+
+    private void write(List<Line> batch, Progress progress) {
+        Map<String, Boolean> written;
+        try {
+            written = redisService.setValues(batch.stream().map(Line::entry).toList());
+        } catch (RuntimeException e) {
+            log.warn("Bulk import batch of {} records failed", batch.size(), e);
+            batch.forEach(line -> progress.fail(line.number(), line.entry().key(), e.getMessage()));
+            return;
+        }
+
+        for (Line line : batch) {
+            if (Boolean.TRUE.equals(written.get(line.entry().key()))) {
+                progress.written++;
+                progress.records++;
+            } else {
+                progress.fail(line.number(), line.entry().key(), "Write failed");
+            }
+        }
+    }
+
+    static KeyValueEntry parseCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+
+        if (fields.size() < 2 || fields.size() > 3) {
+            throw new IllegalArgumentException("Expected key,value[,ttl] but got " + fields.size() + " fields");
+        }
+        String ttl = fields.size() == 3 ? fields.get(2).trim() : "";
+        try {
+            return new KeyValueEntry(fields.get(0), fields.get(1), ttl.isEmpty() ? null : Long.valueOf(ttl));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ttl '" + ttl + "'");
+        }
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+
+        KeyValueEntry parse(String line, long number) throws JsonProcessingException;
+    }
+
+    private record Line(long number, KeyValueEntry entry) {
+    }
+
+    private static final class Progress {
+
+        private final int maxReportedFailures;
+        private final List<BulkImportResult.Failure> failures = new ArrayList<>();
+        private long records;
+        private long written;
+        private long failed;
+
+        private Progress(int maxReportedFailures) {
+            this.maxReportedFailures = maxReportedFailures;
+        }
+
+        private void fail(long line, String key, String error) {
+            records++;
+            failed++;
+            if (failures.size() < maxReportedFailures) {
+                failures.add(new BulkImportResult.Failure(line, key, error));
+            }
+        }
+
+        private BulkImportResult result(Duration elapsed) {
+            return new BulkImportResult(records, written, failed, failures, elapsed);
+        }
+    }
+}
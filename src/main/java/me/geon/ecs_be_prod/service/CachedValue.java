@@ -0,0 +1,20 @@
+package me.geon.ecs_be_prod.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Envelope stored by {@link RedisService#getOrCompute}: the value plus how long it took to compute and when it
+ * expires, both in milliseconds.
+ */
+public record CachedValue(Object value, long computeMillis, long expiresAt) {
+
+    /**
+     * XFetch (Vattani et al., "Optimal Probabilistic Cache Stampede Prevention"): refresh early with a probability
+     * that rises as expiry approaches, sooner for values that are expensive to compute. {@code beta > 1} favours
+     * earlier refreshes.
+     */
+    public boolean shouldRefresh(double beta, long now) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return now - computeMillis * beta * Math.log(random) >= expiresAt;
+    }
+}
@@ -0,0 +1,475 @@
+package me.geon.ecs_be_prod.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes changes of watched keys to subscribers, driven by Redis keyspace notifications.
+ * <p>
+ * Each shard has one {@link RedisMessageListenerContainer}, so a task holds one subscriber connection per shard
+ * however many clients watch. It is subscribed to {@code __keyspace@<db>__:<key>} while at least one subscriber
+ * watches the key; in bucket mode the channel is that of the key's bucket. A notification only marks keys dirty.
+ * Every {@code debounce} one thread reads all dirty keys with a single pipelined read per shard and hands each
+ * subscriber the keys of its own whose value actually changed, so a key written many times within a window costs
+ * one read and at most one event.
+ * <p>
+ * Sending happens off that thread on a pool of {@code send-threads}. Each subscriber has a mailbox that keeps only
+ * the latest value per key and is drained by at most one sender task at a time, so its events stay in order and
+ * what it has not received yet is bounded by the keys it watches. A send that has not returned after
+ * {@code send-timeout} drops its subscriber at the next heartbeat, so stalled clients cannot pile up; the thread
+ * it blocks is released when the container's write timeout fails the write.
+ * <p>
+ * Keyspace channels are subscribed and unsubscribed under {@code channelLock}, outside the {@code lock} the
+ * dispatcher needs, so a new watcher never stalls delivery while its {@code SUBSCRIBE} is on the wire.
+ */
+@Component
+public class KeyChangeFeed implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyChangeFeed.class);
+
+    /**
+     * Flags {@code A} stands for in {@code notify-keyspace-events}.
+     */
+    private static final String ALL_EVENT_TYPES = "g$lshzxetd";
+
+    private final AppRedisProperties.Watch properties;
+    private final RedisService redisService;
+    private final RedisShards shards;
+    private final BucketStore buckets;
+    private final Map<RedisTemplate<String, Object>, ShardListener> listeners = new IdentityHashMap<>();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+
+    private final Object lock = new Object();
+    private final Object channelLock = new Object();
+    private final Map<String, Set<Subscription>> watchers = new HashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Queue<Subscription> joined = new ConcurrentLinkedQueue<>();
+    private final Map<String, Object> lastValues = new HashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final Counter events;
+    private final Counter dropped;
+    private long nextHeartbeat;
+
+    public KeyChangeFeed(AppRedisProperties properties,
+                         RedisService redisService,
+                         RedisShards shards,
+                         BucketStore buckets,
+                         MeterRegistry meterRegistry) {
+        this.properties = properties.getWatch();
+        this.redisService = redisService;
+        this.shards = shards;
+        this.buckets = buckets;
+        this.events = meterRegistry.counter("redis.watch.events");
+        this.dropped = meterRegistry.counter("redis.watch.dropped");
+        meterRegistry.gauge("redis.watch.subscribers", subscriptions);
+
+        if (!this.properties.isEnabled()) {
+            dispatcher = null;
+            senders = null;
+            return;
+        }
+        for (RedisTemplate<String, Object> template : shards.all()) {
+            listeners.put(template, new ShardListener(Objects.requireNonNull(template.getConnectionFactory())));
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-watch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderThreads = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(this.properties.getSendThreads(), this.properties.getSendThreads(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "redis-watch-send-" + senderThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        senders = pool;
+        long debounce = this.properties.getDebounce().toMillis();
+        nextHeartbeat = System.nanoTime() + this.properties.getHeartbeat().toNanos();
+        dispatcher.scheduleWithFixedDelay(this::dispatch, debounce, debounce, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Turns on the keyspace notification flags the feed needs, keeping any flags already set. Managed Redis
+     * services usually reject {@code CONFIG SET}; the flags then have to be set in the server configuration.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void enableNotifications() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (RedisTemplate<String, Object> template : shards.all()) {
+            try (RedisConnection connection = Objects.requireNonNull(template.getConnectionFactory()).getConnection()) {
+                Properties config = connection.serverCommands().getConfig("notify-keyspace-events");
+                String current = config == null ? "" : config.getProperty("notify-keyspace-events", "");
+                String missing = missingFlags(current, properties.getKeyspaceEvents());
+                if (missing.isEmpty()) {
+                    continue;
+                }
+                if (!properties.isConfigureNotifications()) {
+                    log.warn("notify-keyspace-events is '{}' and lacks '{}'; watched keys will not see changes", current, missing);
+                    continue;
+                }
+                connection.serverCommands().setConfig("notify-keyspace-events", current + missing);
+                log.info("Set notify-keyspace-events to '{}'", current + missing);
+            } catch (RuntimeException e) {
+                log.warn("Could not enable keyspace notifications; set notify-keyspace-events={} on the server",
+                        properties.getKeyspaceEvents(), e);
+            }
+        }
+    }
+
+    static String missingFlags(String current, String required) {
+        StringBuilder missing = new StringBuilder();
+        for (char flag : required.toCharArray()) {
+            boolean covered = current.indexOf(flag) >= 0
+                    || (current.indexOf('A') >= 0 && ALL_EVENT_TYPES.indexOf(flag) >= 0);
+            if (!covered && missing.indexOf(String.valueOf(flag)) < 0) {
+                missing.append(flag);
+            }
+        }
+        return missing.toString();
+    }
+
+    /**
+     * Starts watching {@code keys}. The listener first receives a snapshot of all of them, then the keys whose
+     * value changed, including to {@code null} when deleted or expired. A listener that throws is unsubscribed.
+     */
+    public Subscription subscribe(Collection<String> keys, Listener listener) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("Watching keys is disabled");
+        }
+        Subscription subscription = new Subscription(List.copyOf(new LinkedHashSet<>(keys)), listener);
+        synchronized (channelLock) {
+            List<String> added = new ArrayList<>();
+            synchronized (lock) {
+                for (String key : subscription.keys) {
+                    Set<Subscription> keyWatchers = watchers.computeIfAbsent(key, k -> new HashSet<>());
+                    if (keyWatchers.isEmpty()) {
+                        added.add(key);
+                    }
+                    keyWatchers.add(subscription);
+                }
+            }
+            added.forEach(key -> listeners.get(shards.forKey(key)).watch(key));
+        }
+        subscriptions.incrementAndGet();
+        joined.add(subscription);
+        return subscription;
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        synchronized (channelLock) {
+            List<String> removed = new ArrayList<>();
+            synchronized (lock) {
+                for (String key : subscription.keys) {
+                    Set<Subscription> keyWatchers = watchers.get(key);
+                    if (keyWatchers == null || !keyWatchers.remove(subscription) || !keyWatchers.isEmpty()) {
+                        continue;
+                    }
+                    watchers.remove(key);
+                    removed.add(key);
+                }
+            }
+            removed.forEach(key -> listeners.get(shards.forKey(key)).unwatch(key));
+        }
+        subscriptions.decrementAndGet();
+    }
+
+    private void dispatch() {
+        List<Subscription> newcomers = new ArrayList<>();
+        Set<String> keys = new LinkedHashSet<>();
+        try {
+            for (Subscription subscription; (subscription = joined.poll()) != null; ) {
+                if (!subscription.closed.get()) {
+                    newcomers.add(subscription);
+                    keys.addAll(subscription.keys);
+                }
+            }
+            for (String key : dirty) {
+                dirty.remove(key);
+                keys.add(key);
+            }
+            if (!keys.isEmpty()) {
+                deliver(newcomers, redisService.getStoredValues(new ArrayList<>(keys)));
+            }
+            if (System.nanoTime() - nextHeartbeat >= 0) {
+                nextHeartbeat = System.nanoTime() + properties.getHeartbeat().toNanos();
+                heartbeat();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read {} watched keys, retrying", keys.size(), e);
+            dirty.addAll(keys);
+            joined.addAll(newcomers);
+        }
+    }
+
+    private void deliver(List<Subscription> newcomers, Map<String, Object> values) {
+        Map<String, Object> changed = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (!lastValues.containsKey(key) || !Objects.equals(lastValues.get(key), value)) {
+                changed.put(key, value);
+            }
+            lastValues.put(key, value);
+        });
+
+        Set<Subscription> affected = new LinkedHashSet<>();
+        synchronized (lock) {
+            changed.keySet().forEach(key -> affected.addAll(watchers.getOrDefault(key, Set.of())));
+        }
+        newcomers.forEach(affected::remove);
+        for (Subscription subscription : affected) {
+            Map<String, Object> slice = subscription.slice(changed);
+            if (!slice.isEmpty()) {
+                subscription.deliver(slice, false);
+            }
+        }
+        for (Subscription subscription : newcomers) {
+            subscription.deliver(subscription.slice(values), true);
+        }
+    }
+
+    private void heartbeat() {
+        Set<Subscription> all = new HashSet<>();
+        synchronized (lock) {
+            watchers.values().forEach(all::addAll);
+            lastValues.keySet().retainAll(watchers.keySet());
+        }
+        long now = System.nanoTime();
+        for (Subscription subscription : all) {
+            if (subscription.isStalled(now)) {
+                log.debug("Dropping a watch subscriber whose send has been blocked for over {}", properties.getSendTimeout());
+                dropped.increment();
+                subscription.close();
+            } else {
+                subscription.heartbeat();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+            senders.shutdownNow();
+        }
+        for (ShardListener listener : listeners.values()) {
+            listener.container.destroy();
+        }
+    }
+
+    public interface Listener {
+
+        void changed(Map<String, Object> values, boolean snapshot) throws Exception;
+
+        void heartbeat() throws Exception;
+    }
+
+    public final class Subscription implements AutoCloseable {
+
+        private final List<String> keys;
+        private final Listener listener;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final Map<String, Object> pending = new LinkedHashMap<>();
+        private boolean pendingSnapshot;
+        private boolean pendingHeartbeat;
+        private boolean sending;
+        private volatile long sendStarted;
+
+        private Subscription(List<String> keys, Listener listener) {
+            this.keys = keys;
+            this.listener = listener;
+        }
+
+        private Map<String, Object> slice(Map<String, Object> values) {
+            Map<String, Object> slice = new LinkedHashMap<>();
+            for (String key : keys) {
+                if (values.containsKey(key)) {
+                    slice.put(key, values.get(key));
+                }
+            }
+            return slice;
+        }
+
+        private boolean isStalled(long now) {
+            long started = sendStarted;
+            return started != 0 && now - started > properties.getSendTimeout().toNanos();
+        }
+
+        private void deliver(Map<String, Object> values, boolean snapshot) {
+            synchronized (this) {
+                pending.putAll(values);
+                pendingSnapshot |= snapshot;
+            }
+            schedule();
+        }
+
+        private void heartbeat() {
+            synchronized (this) {
+                pendingHeartbeat = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (sending || closed.get()) {
+                    return;
+                }
+                sending = true;
+            }
+            try {
+                senders.execute(this::send);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        /**
+         * Sends whatever piled up in the mailbox, repeating until it is empty. A pending snapshot absorbs the
+         * changes merged into it, which still leaves the subscriber with the current value of every key.
+         */
+        private void send() {
+            while (!closed.get()) {
+                Map<String, Object> values;
+                boolean snapshot;
+                boolean heartbeat;
+                synchronized (this) {
+                    if (pending.isEmpty() && !pendingHeartbeat) {
+                        sending = false;
+                        return;
+                    }
+                    values = new LinkedHashMap<>(pending);
+                    snapshot = pendingSnapshot;
+                    heartbeat = pendingHeartbeat;
+                    pending.clear();
+                    pendingSnapshot = false;
+                    pendingHeartbeat = false;
+                }
+                sendStarted = System.nanoTime();
+                try {
+                    if (!values.isEmpty()) {
+                        listener.changed(values, snapshot);
+                        events.increment();
+                    }
+                    if (heartbeat) {
+                        listener.heartbeat();
+                    }
+                } catch (Exception e) {
+                    close();
+                } finally {
+                    sendStarted = 0;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+            }
+        }
+    }
+
+    /**
+     * Keyspace subscriptions on one shard. Channels are reference counted by the watched keys mapped to them,
+     * which is more than one key only in bucket mode. Changes happen under {@code channelLock}; notifications are
+     * handled inline on the connection's thread and only read the map, so they never wait for a subscribe.
+     */
+    private final class ShardListener implements MessageListener {
+
+        private final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        private final String channelPrefix;
+        private final Map<String, Set<String>> keysByChannel = new ConcurrentHashMap<>();
+
+        private ShardListener(RedisConnectionFactory connectionFactory) {
+            int database = connectionFactory instanceof LettuceConnectionFactory lettuce ? lettuce.getDatabase() : 0;
+            this.channelPrefix = "__keyspace@" + database + "__:";
+            container.setConnectionFactory(connectionFactory);
+            container.setTaskExecutor(new SyncTaskExecutor());
+            container.afterPropertiesSet();
+            container.start();
+        }
+
+        private void watch(String key) {
+            String channel = channelOf(key);
+            Set<String> keys = keysByChannel.computeIfAbsent(channel, c -> ConcurrentHashMap.newKeySet());
+            if (keys.isEmpty()) {
+                container.addMessageListener(this, new ChannelTopic(channelPrefix + channel));
+            }
+            keys.add(key);
+        }
+
+        private void unwatch(String key) {
+            String channel = channelOf(key);
+            Set<String> keys = keysByChannel.get(channel);
+            if (keys == null || !keys.remove(key) || !keys.isEmpty()) {
+                return;
+            }
+            keysByChannel.remove(channel);
+            container.removeMessageListener(this, new ChannelTopic(channelPrefix + channel));
+        }
+
+        private String channelOf(String key) {
+            return buckets.isEnabled() ? buckets.bucketOf(key) : key;
+        }
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            String channel = new String(message.getChannel(), StandardCharsets.UTF_8).substring(channelPrefix.length());
+            Set<String> keys = keysByChannel.get(channel);
+            if (keys != null) {
+                dirty.addAll(keys);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package me.geon.ecs_be_prod.service;
+
+public record KeyValueEntry(String key, Object value, Long ttl) {
+
+    public boolean hasTtl() {
+        return ttl != null && ttl > 0;
+    }
+}
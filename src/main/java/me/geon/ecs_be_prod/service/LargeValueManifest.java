@@ -0,0 +1,13 @@
+package me.geon.ecs_be_prod.service;
+
+/**
+ * Describes a value stored by {@link LargeValueService}. Chunk {@code n} lives in
+ * {@code __large:{<key>}:chunk:<id>:<n>}; values up to the threshold have no chunks and carry their bytes in
+ * {@code data}.
+ */
+public record LargeValueManifest(String id, long size, int chunkSize, int chunks, byte[] data) {
+
+    public boolean isInline() {
+        return data != null;
+    }
+}
@@ -0,0 +1,279 @@
+package me.geon.ecs_be_prod.service;
+
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.limit.AdaptiveConcurrencyLimiter;
+import me.geon.ecs_be_prod.metrics.HotKeyTracker;
+import me.geon.ecs_be_prod.metrics.RedisMetrics;
+import me.geon.ecs_be_prod.metrics.RedisTrace;
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Stores values of any size as raw bytes without holding them in memory as a whole.
+ * <p>
+ * Values above {@code threshold} are split into {@code chunk-size} pieces under
+ * {@code __large:{<key>}:chunk:<id>:<n>} and described by a hash in {@code __large:{<key>}:manifest}; smaller
+ * values are kept inline in the manifest. The {@code __large:} prefix is reserved, so these keys never collide
+ * with plain values and {@code /scan} can leave them out. Chunks are
+ * written and read {@code pipeline-chunks} at a time, so one transfer holds at most that many chunks in heap and
+ * Redis never serves a single multi-megabyte command.
+ * <p>
+ * A new upload writes its chunks under a fresh id with an {@code upload-timeout} expiry, so an aborted upload
+ * cleans itself up. The manifest is then swapped by a Lua script, and the chunks of the replaced value expire
+ * after {@code retired-ttl} instead of being deleted, so reads that already hold the old manifest can finish.
+ * All chunk keys are routed to the shard of {@code key}.
+ */
+@Service
+public class LargeValueService {
+
+    private static final String KEY_PREFIX = "__large:";
+    private static final String MANIFEST_SUFFIX = ":manifest";
+    private static final String CHUNK_SUFFIX = ":chunk:";
+
+    private final RedisShards shards;
+    private final HotKeyTracker hotKeys;
+    private final RedisMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final AppRedisProperties.LargeValue properties;
+
+    public LargeValueService(RedisShards shards,
+                             HotKeyTracker hotKeys,
+                             RedisMetrics metrics,
+                             AdaptiveConcurrencyLimiter limiter,
+                             AppRedisProperties properties) {
+        this.shards = shards;
+        this.hotKeys = hotKeys;
+        this.metrics = metrics;
+        this.limiter = limiter;
+        this.properties = properties.getLargeValue();
+    }
+
+    /**
+     * Reads {@code body} to the end and stores it under {@code key}, replacing any previous large value.
+     */
+    public LargeValueManifest write(String key, InputStream body, Duration ttl) throws IOException {
+        hotKeys.recordWrite(key);
+        RedisTemplate<String, Object> template = shards.forKey(key);
+        int chunkSize = properties.getChunkSize();
+        String id = UUID.randomUUID().toString().replace("-", "");
+
+        byte[] first = body.readNBytes(chunkSize);
+        if (first.length < chunkSize && first.length <= properties.getThreshold()) {
+            LargeValueManifest manifest = new LargeValueManifest(id, first.length, chunkSize, 0, first);
+            replaceManifest(key, manifest, ttl);
+            return manifest;
+        }
+
+        List<byte[]> batch = new ArrayList<>(properties.getPipelineChunks());
+        batch.add(first);
+        long size = first.length;
+        int written = 0;
+        while (true) {
+            byte[] chunk = body.readNBytes(chunkSize);
+            if (chunk.length > 0) {
+                batch.add(chunk);
+                size += chunk.length;
+            }
+            boolean last = chunk.length < chunkSize;
+            if (batch.size() >= properties.getPipelineChunks() || (last && !batch.isEmpty())) {
+                writeChunks(template, key, id, written, batch);
+                written += batch.size();
+                batch.clear();
+            }
+            if (last) {
+                break;
+            }
+        }
+
+        commitChunks(template, key, id, written, ttl);
+        LargeValueManifest manifest = new LargeValueManifest(id, size, chunkSize, written, null);
+        replaceManifest(key, manifest, ttl);
+        return manifest;
+    }
+
+    /**
+     * Returns {@code null} when no large value is stored under the key.
+     */
+    public LargeValueManifest manifest(String key) {
+        hotKeys.recordRead(key);
+        byte[] manifestKey = bytes(manifestKey(key));
+        Map<byte[], byte[]> fields = call("large-manifest", key, () -> shards.forKey(key).execute(
+                (RedisCallback<Map<byte[], byte[]>>) connection -> connection.hashCommands().hGetAll(manifestKey)));
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+
+        String id = null;
+        long size = 0;
+        int chunkSize = 0;
+        int chunks = 0;
+        byte[] data = null;
+        for (Map.Entry<byte[], byte[]> field : fields.entrySet()) {
+            String name = new String(field.getKey(), StandardCharsets.UTF_8);
+            switch (name) {
+                case "id" -> id = new String(field.getValue(), StandardCharsets.UTF_8);
+                case "size" -> size = Long.parseLong(new String(field.getValue(), StandardCharsets.US_ASCII));
+                case "chunk-size" -> chunkSize = Integer.parseInt(new String(field.getValue(), StandardCharsets.US_ASCII));
+                case "chunks" -> chunks = Integer.parseInt(new String(field.getValue(), StandardCharsets.US_ASCII));
+                case "data" -> data = field.getValue();
+                default -> {
+                }
+            }
+        }
+        return new LargeValueManifest(id, size, chunkSize, chunks, data);
+    }
+
+    /**
+     * Writes bytes {@code start} to {@code end} (inclusive) of the value described by {@code manifest}, flushing
+     * after every pipelined batch. Fails with {@link IllegalStateException} when a chunk is gone, e.g. because the
+     * value was replaced more than {@code retired-ttl} ago.
+     */
+    public void read(String key, LargeValueManifest manifest, long start, long end, OutputStream out) throws IOException {
+        if (manifest.isInline()) {
+            out.write(manifest.data(), (int) start, (int) (end - start + 1));
+            out.flush();
+            return;
+        }
+
+        RedisTemplate<String, Object> template = shards.forKey(key);
+        int chunkSize = manifest.chunkSize();
+        int firstChunk = (int) (start / chunkSize);
+        int lastChunk = (int) (end / chunkSize);
+        for (int batchStart = firstChunk; batchStart <= lastChunk; batchStart += properties.getPipelineChunks()) {
+            int batchEnd = Math.min(lastChunk, batchStart + properties.getPipelineChunks() - 1);
+            int from = batchStart;
+            List<Object> parts = call("large-read", key, () -> pipelined(template, connection -> {
+                for (int chunk = from; chunk <= batchEnd; chunk++) {
+                    long offset = chunk == firstChunk ? start % chunkSize : 0;
+                    long last = chunk == lastChunk ? end % chunkSize : chunkSize - 1;
+                    connection.stringCommands().getRange(chunkKey(key, manifest.id(), chunk), offset, last);
+                }
+            }));
+
+            for (int chunk = from; chunk <= batchEnd; chunk++) {
+                long expected = (chunk == lastChunk ? end % chunkSize : chunkSize - 1)
+                        - (chunk == firstChunk ? start % chunkSize : 0) + 1;
+                Object part = parts.get(chunk - from);
+                if (!(part instanceof byte[] data) || data.length != expected) {
+                    throw new IllegalStateException("Chunk " + chunk + " of large value " + key + " is missing");
+                }
+                out.write(data);
+            }
+            out.flush();
+        }
+    }
+
+    public boolean delete(String key) {
+        hotKeys.recordWrite(key);
+        return replaceManifest(key, null, null);
+    }
+
+    private void writeChunks(RedisTemplate<String, Object> template, String key, String id, int offset, List<byte[]> chunks) {
+        Expiration expiration = Expiration.from(properties.getUploadTimeout());
+        call("large-write", key, () -> pipelined(template, connection -> {
+            for (int i = 0; i < chunks.size(); i++) {
+                connection.stringCommands().set(chunkKey(key, id, offset + i), chunks.get(i),
+                        expiration, RedisStringCommands.SetOption.upsert());
+            }
+        }));
+    }
+
+    /**
+     * Replaces the upload expiry of every chunk with the value's own TTL, plus {@code retired-ttl} so chunks
+     * never expire before their manifest.
+     */
+    private void commitChunks(RedisTemplate<String, Object> template, String key, String id, int chunks, Duration ttl) {
+        int batchSize = properties.getPipelineChunks() * 64;
+        for (int batchStart = 0; batchStart < chunks; batchStart += batchSize) {
+            int from = batchStart;
+            int to = Math.min(chunks, batchStart + batchSize);
+            call("large-commit", key, () -> pipelined(template, connection -> {
+                for (int chunk = from; chunk < to; chunk++) {
+                    byte[] chunkKey = chunkKey(key, id, chunk);
+                    if (ttl == null) {
+                        connection.keyCommands().persist(chunkKey);
+                    } else {
+                        connection.keyCommands().pExpire(chunkKey, ttl.plus(properties.getRetiredTtl()).toMillis());
+                    }
+                }
+            }));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean replaceManifest(String key, LargeValueManifest manifest, Duration ttl) {
+        List<byte[]> args = new ArrayList<>(7);
+        args.add(bytes(manifest == null ? "" : manifest.id()));
+        args.add(ascii(manifest == null ? 0 : manifest.size()));
+        args.add(ascii(manifest == null ? 0 : manifest.chunkSize()));
+        args.add(ascii(manifest == null ? 0 : manifest.chunks()));
+        args.add(ascii(ttl == null ? 0 : ttl.toMillis()));
+        args.add(ascii(properties.getRetiredTtl().toMillis()));
+        if (manifest != null && manifest.isInline()) {
+            args.add(manifest.data());
+        }
+
+        Long replaced = call("large-manifest", key, () -> shards.forKey(key).execute(LuaScripts.REPLACE_MANIFEST,
+                RedisSerializer.byteArray(), (RedisSerializer<Long>) (RedisSerializer) RedisSerializer.byteArray(),
+                List.of(manifestKey(key), chunkPrefix(key)), args.toArray()));
+        return replaced != null && replaced == 1;
+    }
+
+    private static List<Object> pipelined(RedisTemplate<String, Object> template, Consumer<RedisConnection> commands) {
+        RedisTrace.ConnectionWait connectionWait = RedisTrace.connectionWait();
+        return template.executePipelined((RedisCallback<Object>) connection -> {
+            connectionWait.acquired();
+            commands.accept(connection);
+            return null;
+        }, RedisSerializer.byteArray());
+    }
+
+    private <T> T call(String operation, String key, Supplier<T> body) {
+        return limiter.execute(() -> metrics.record(operation, key, body));
+    }
+
+    /**
+     * Whether {@code key} is a manifest or chunk of a large value rather than a value of its own.
+     */
+    public static boolean isLargeValueKey(String key) {
+        return key.startsWith(KEY_PREFIX);
+    }
+
+    private static String manifestKey(String key) {
+        return KEY_PREFIX + "{" + key + "}" + MANIFEST_SUFFIX;
+    }
+
+    private static String chunkPrefix(String key) {
+        return KEY_PREFIX + "{" + key + "}" + CHUNK_SUFFIX;
+    }
+
+    private static byte[] chunkKey(String key, String id, int chunk) {
+        return bytes(chunkPrefix(key) + id + ":" + chunk);
+    }
+
+    private static byte[] ascii(long number) {
+        return Long.toString(number).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,43 @@
+package me.geon.ecs_be_prod.service;
+
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads every {@link LuaScripts} script into each shard at startup so the first calls hit {@code EVALSHA}.
+ * A failed load is not fatal; the first call falls back to {@code EVAL}.
+ */
+@Component
+public class LuaScriptPreloader {
+
+    private static final Logger log = LoggerFactory.getLogger(LuaScriptPreloader.class);
+
+    private final RedisShards shards;
+
+    public LuaScriptPreloader(RedisShards shards) {
+        this.shards = shards;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        for (RedisTemplate<String, Object> template : shards.all()) {
+            for (RedisScript<?> script : LuaScripts.ALL) {
+                byte[] source = script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+                try {
+                    template.execute((RedisCallback<String>) connection -> connection.scriptingCommands().scriptLoad(source));
+                } catch (RuntimeException e) {
+                    log.warn("Could not preload Lua script {}", script.getSha1(), e);
+                }
+            }
+        }
+    }
+}
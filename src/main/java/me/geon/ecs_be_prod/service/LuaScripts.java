@@ -0,0 +1,40 @@
+package me.geon.ecs_be_prod.service;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Scripts run through {@code EVALSHA} with the SHA1 computed once per script. When Redis answers
+ * {@code NOSCRIPT}, e.g. after a restart or {@code SCRIPT FLUSH}, Spring Data Redis retries with {@code EVAL},
+ * which also puts the script back into the server's cache.
+ */
+@SuppressWarnings("rawtypes")
+public final class LuaScripts {
+
+    public static final RedisScript<List> GET_WITH_TTL = script("scripts/get-with-ttl.lua", List.class);
+    public static final RedisScript<List> SET_IF_VERSION = script("scripts/set-if-version.lua", List.class);
+    public static final RedisScript<Long> RELEASE_LOCK = script("scripts/release-lock.lua", Long.class);
+    public static final RedisScript<Long> REPLACE_MANIFEST = script("scripts/replace-manifest.lua", Long.class);
+    public static final RedisScript<List> BUCKET_GET = script("scripts/bucket-get.lua", List.class);
+    public static final RedisScript<Long> BUCKET_SET = script("scripts/bucket-set.lua", Long.class);
+    public static final RedisScript<Long> BUCKET_DELETE = script("scripts/bucket-delete.lua", Long.class);
+    public static final RedisScript<Long> BUCKET_EXPIRE = script("scripts/bucket-expire.lua", Long.class);
+    public static final RedisScript<List> BUCKET_SET_IF_VERSION = script("scripts/bucket-set-if-version.lua", List.class);
+    public static final RedisScript<Long> BUCKET_SWEEP = script("scripts/bucket-sweep.lua", Long.class);
+
+    public static final List<RedisScript<?>> ALL = List.of(GET_WITH_TTL, SET_IF_VERSION, RELEASE_LOCK, REPLACE_MANIFEST,
+            BUCKET_GET, BUCKET_SET, BUCKET_DELETE, BUCKET_EXPIRE, BUCKET_SET_IF_VERSION, BUCKET_SWEEP);
+
+    private LuaScripts() {
+    }
+
+    private static <T> RedisScript<T> script(String location, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        script.setResultType(resultType);
+        return script;
+    }
+}
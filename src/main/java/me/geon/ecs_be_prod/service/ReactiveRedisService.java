@@ -0,0 +1,199 @@
+package me.geon.ecs_be_prod.service;
+
+import me.geon.ecs_be_prod.cache.NearCache;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.limit.AdaptiveConcurrencyLimiter;
+import me.geon.ecs_be_prod.metrics.HotKeyTracker;
+import me.geon.ecs_be_prod.metrics.RedisMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link RedisService} for the endpoints {@code ReactiveRedisController} serves. Calls
+ * go through the same concurrency limiter and {@code redis.operation} timers. Features that would silently behave
+ * differently here (sharding, buckets, write-behind, ETag headers, watch) fail startup instead.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRedisService {
+
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final ReactiveValueOperations<String, Object> valueOperations;
+    private final NearCache nearCache;
+    private final HotKeyTracker hotKeys;
+    private final RedisMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ReactiveRedisService(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                NearCache nearCache,
+                                HotKeyTracker hotKeys,
+                                RedisMetrics metrics,
+                                AdaptiveConcurrencyLimiter limiter,
+                                AppRedisProperties properties) {
+        if (!properties.getSharding().getNodes().isEmpty()) {
+            throw new IllegalStateException("The reactive stack only talks to the default Redis node; "
+                    + "app.redis.sharding.nodes is supported on the servlet stack only");
+        }
+        if (properties.getBuckets().isEnabled()) {
+            throw new IllegalStateException("The reactive stack reads and writes plain string keys; "
+                    + "app.redis.buckets.enabled is supported on the servlet stack only");
+        }
+        if (properties.getWriteBehind().isEnabled()) {
+            throw new IllegalStateException("The reactive stack writes through to Redis; "
+                    + "app.redis.write-behind.enabled is supported on the servlet stack only");
+        }
+        if (properties.getSerializer().isEtagHeader()) {
+            throw new IllegalStateException("The reactive stack sends no ETag; "
+                    + "app.redis.serializer.etag-header is supported on the servlet stack only");
+        }
+        if (properties.getWatch().isEnabled()) {
+            throw new IllegalStateException("The reactive stack has no /watch endpoint; "
+                    + "app.redis.watch.enabled is supported on the servlet stack only");
+        }
+        this.redisTemplate = reactiveRedisTemplate;
+        this.valueOperations = reactiveRedisTemplate.opsForValue();
+        this.nearCache = nearCache;
+        this.hotKeys = hotKeys;
+        this.metrics = metrics;
+        this.limiter = limiter;
+    }
+
+    public Mono<Boolean> setValue(String key, Object value) {
+        hotKeys.recordWrite(key);
+        return call("set", valueOperations.set(key, value))
+                .flatMap(set -> afterWrite(key).thenReturn(set));
+    }
+
+    public Mono<Boolean> setValueWithDuration(String key, Object value, Duration duration) {
+        hotKeys.recordWrite(key);
+        return call("set", valueOperations.set(key, value, duration))
+                .flatMap(set -> afterWrite(key).thenReturn(set));
+    }
+
+    public Mono<Object> getValue(String key) {
+        hotKeys.recordRead(key);
+        return Mono.defer(() -> {
+            Object cached = nearCache.get(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            if (!nearCache.isAvailable()) {
+                return call("get", valueOperations.get(key));
+            }
+            long stamp = nearCache.stamp();
+            return call("get", Mono.zip(valueOperations.get(key), ttl(key)))
+                    .doOnNext(read -> nearCache.put(key, read.getT1(), read.getT2(), stamp))
+                    .map(Tuple2::getT1);
+        });
+    }
+
+    public Mono<Boolean> deleteValue(String key) {
+        hotKeys.recordWrite(key);
+        return call("delete", redisTemplate.delete(key))
+                .map(count -> count > 0)
+                .flatMap(deleted -> afterWrite(key).thenReturn(deleted));
+    }
+
+    public Mono<Boolean> hasKey(String key) {
+        hotKeys.recordRead(key);
+        return Mono.defer(() -> nearCache.get(key) != null ? Mono.just(true) : call("exists", redisTemplate.hasKey(key)));
+    }
+
+    public Mono<Long> getExpire(String key) {
+        hotKeys.recordRead(key);
+        return call("ttl", ttl(key));
+    }
+
+    public Mono<Map<String, Object>> getValues(List<String> keys) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        distinct.forEach(hotKeys::recordRead);
+        if (distinct.isEmpty()) {
+            return Mono.just(new LinkedHashMap<>());
+        }
+        return call("mget", valueOperations.multiGet(distinct)).map(values -> {
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (int i = 0; i < distinct.size(); i++) {
+                result.put(distinct.get(i), i < values.size() ? values.get(i) : null);
+            }
+            return result;
+        });
+    }
+
+    public Mono<Map<String, Boolean>> setValues(List<KeyValueEntry> entries) {
+        Map<String, KeyValueEntry> latest = new LinkedHashMap<>();
+        entries.forEach(entry -> latest.put(entry.key(), entry));
+        latest.keySet().forEach(hotKeys::recordWrite);
+
+        return call("mset", Flux.fromIterable(latest.values())
+                .flatMapSequential(entry -> (entry.hasTtl()
+                        ? valueOperations.set(entry.key(), entry.value(), Duration.ofSeconds(entry.ttl()))
+                        : valueOperations.set(entry.key(), entry.value()))
+                        .onErrorReturn(false)
+                        .map(set -> Map.entry(entry.key(), set)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new))
+                .flatMap(written -> afterWrites(written.keySet()).thenReturn(written));
+    }
+
+    public Mono<Map<String, Boolean>> deleteValues(List<String> keys) {
+        Set<String> distinct = new LinkedHashSet<>(keys);
+        distinct.forEach(hotKeys::recordWrite);
+        return call("mdelete", Flux.fromIterable(distinct)
+                .flatMapSequential(key -> redisTemplate.delete(key)
+                        .map(count -> count > 0)
+                        .onErrorReturn(false)
+                        .map(deleted -> Map.entry(key, deleted)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new))
+                .flatMap(deleted -> afterWrites(deleted.keySet()).thenReturn(deleted));
+    }
+
+    public Flux<KeyValueEntry> scan(String match, int count) {
+        ScanOptions options = ScanOptions.scanOptions().match(match).count(count).build();
+        return redisTemplate.scan(options)
+                .filter(key -> !LargeValueService.isLargeValueKey(key))
+                .buffer(count)
+                .concatMap(keys -> call("scan", valueOperations.multiGet(keys))
+                        .flatMapMany(values -> Flux.range(0, keys.size())
+                                .filter(i -> values.get(i) != null)
+                                .flatMapSequential(i -> ttl(keys.get(i))
+                                        .map(seconds -> new KeyValueEntry(keys.get(i), values.get(i), seconds > 0 ? seconds : null)))));
+    }
+
+    private <T> Mono<T> call(String operation, Mono<T> body) {
+        return limiter.execute(metrics.record(operation, body));
+    }
+
+    private Mono<Long> ttl(String key) {
+        ByteBuffer rawKey = redisTemplate.getSerializationContext().getKeySerializationPair().write(key);
+        return redisTemplate.execute(connection -> connection.keyCommands().ttl(rawKey)).next();
+    }
+
+    private Mono<Void> afterWrite(String key) {
+        return Mono.fromRunnable(() -> nearCache.invalidate(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private Mono<Void> afterWrites(Collection<String> keys) {
+        List<String> written = List.copyOf(keys);
+        return Mono.fromRunnable(() -> nearCache.invalidateAll(written))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
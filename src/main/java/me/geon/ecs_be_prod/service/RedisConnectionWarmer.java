@@ -0,0 +1,78 @@
+package me.geon.ecs_be_prod.service;
+
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Opens Redis connections before the application reports itself ready, so the first requests after a
+ * scale-out do not pay for TCP and handshake setup.
+ * <p>
+ * Runs on {@link ApplicationReadyEvent}, whose listeners complete before the readiness state switches to
+ * {@code ACCEPTING_TRAFFIC}. The shared connection is opened with a plain {@code PING}; pipelined commands
+ * borrow dedicated connections from the pool, so that many are held open at once and then returned idle.
+ * Failures are logged and do not block startup, the pool then fills on demand as before.
+ */
+@Component
+public class RedisConnectionWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisConnectionWarmer.class);
+
+    private final RedisShards shards;
+    private final AppRedisProperties.WarmUp properties;
+
+    public RedisConnectionWarmer(RedisShards shards, AppRedisProperties properties) {
+        this.shards = shards;
+        this.properties = properties.getWarmUp();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int opened = 0;
+        for (RedisTemplate<String, Object> template : shards.all()) {
+            RedisConnectionFactory factory = Objects.requireNonNull(template.getConnectionFactory());
+            try {
+                opened += warmUp(factory);
+            } catch (RuntimeException e) {
+                log.warn("Could not warm up Redis connections", e);
+            }
+        }
+        log.info("Warmed up {} Redis connections on {} shards in {} ms",
+                opened, shards.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int warmUp(RedisConnectionFactory factory) {
+        try (RedisConnection shared = factory.getConnection()) {
+            shared.ping();
+        }
+
+        List<RedisConnection> dedicated = new ArrayList<>(properties.getConnections());
+        try {
+            for (int i = 0; i < properties.getConnections(); i++) {
+                RedisConnection connection = factory.getConnection();
+                dedicated.add(connection);
+                connection.openPipeline();
+                connection.ping();
+                connection.closePipeline();
+            }
+        } finally {
+            dedicated.forEach(RedisConnection::close);
+        }
+        return dedicated.size() + 1;
+    }
+}
@@ -1,52 +1,708 @@
 package me.geon.ecs_be_prod.service;
 
+import me.geon.ecs_be_prod.cache.NearCache;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.config.EtagRedisSerializer;
+import me.geon.ecs_be_prod.limit.AdaptiveConcurrencyLimiter;
+import me.geon.ecs_be_prod.metrics.HotKeyTracker;
+import me.geon.ecs_be_prod.metrics.RedisMetrics;
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class RedisService {
-    
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ValueOperations<String, Object> valueOperations;
-    
-    public RedisService(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
-        this.valueOperations = redisTemplate.opsForValue();
-    }
-    
+
+    private static final Logger log = LoggerFactory.getLogger(RedisService.class);
+
+    private static final String VERSION_SUFFIX = ":version";
+    private static final String LOCK_SUFFIX = ":lock";
+
+    private final RedisShards shards;
+    private final NearCache nearCache;
+    private final SingleFlight singleFlight;
+    private final WriteBehindQueue writeBehind;
+    private final BucketStore buckets;
+    private final RedisMetrics metrics;
+    private final HotKeyTracker hotKeys;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final AppRedisProperties.Compute compute;
+    private final boolean etagHeader;
+
+    public RedisService(RedisShards shards,
+                        NearCache nearCache,
+                        SingleFlight singleFlight,
+                        WriteBehindQueue writeBehind,
+                        BucketStore buckets,
+                        RedisMetrics metrics,
+                        HotKeyTracker hotKeys,
+                        AdaptiveConcurrencyLimiter limiter,
+                        AppRedisProperties properties) {
+        this.shards = shards;
+        this.nearCache = nearCache;
+        this.singleFlight = singleFlight;
+        this.writeBehind = writeBehind;
+        this.buckets = buckets;
+        this.metrics = metrics;
+        this.hotKeys = hotKeys;
+        this.limiter = limiter;
+        this.compute = properties.getCompute();
+        this.etagHeader = properties.getSerializer().isEtagHeader();
+    }
+
     public void setValue(String key, Object value) {
-        valueOperations.set(key, value);
+        run("set", key, () -> {
+            hotKeys.recordWrite(key);
+            if (!writeBehind.offer(key, value, null)) {
+                writeBehind.discard(key);
+                write(key, value, null);
+            }
+            afterWrite(key);
+        });
     }
-    
+
     public void setValueWithTimeout(String key, Object value, long timeout, TimeUnit timeUnit) {
-        valueOperations.set(key, value, timeout, timeUnit);
+        run("set", key, () -> {
+            hotKeys.recordWrite(key);
+            if (!writeBehind.offer(key, value, Duration.of(timeout, timeUnit.toChronoUnit()))) {
+                writeBehind.discard(key);
+                write(key, value, Duration.of(timeout, timeUnit.toChronoUnit()));
+            }
+            afterWrite(key);
+        });
     }
-    
+
     public void setValueWithDuration(String key, Object value, Duration duration) {
-        valueOperations.set(key, value, duration);
+        run("set", key, () -> {
+            hotKeys.recordWrite(key);
+            if (!writeBehind.offer(key, value, duration)) {
+                writeBehind.discard(key);
+                write(key, value, duration);
+            }
+            afterWrite(key);
+        });
     }
-    
+
     public Object getValue(String key) {
-        return valueOperations.get(key);
+        return call("get", key, () -> {
+            hotKeys.recordRead(key);
+            WriteBehindQueue.PendingWrite pendingWrite = writeBehind.peek(key);
+            if (pendingWrite != null) {
+                return pendingWrite.isExpired() ? null : pendingWrite.value();
+            }
+            Object cached = nearCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            return singleFlight.execute(key, () -> readThroughNearCache(key));
+        });
+    }
+
+    /**
+     * Returns the value bytes exactly as stored, skipping deserialization, including the ETag header when values
+     * carry one ({@link EtagRedisSerializer#payloadOffset(byte[])}). A queued write-behind value is flushed first
+     * so the bytes are never older than what {@link #getValue(String)} would return.
+     */
+    public byte[] getRawValue(String key) {
+        return call("get-raw", key, () -> {
+            hotKeys.recordRead(key);
+            writeBehind.flush(key);
+            if (buckets.isEnabled()) {
+                return buckets.getRaw(shards.forKey(key), key);
+            }
+            byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+            return shards.forKey(key).execute(
+                    (RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        });
+    }
+
+    /**
+     * The value and the ETag stored in front of it, from a single {@code GET}: the tag is taken from the header
+     * and only the rest is decoded. Reads Redis rather than the near cache, which holds no tags; concurrent reads
+     * of the key are still coalesced. Without {@code etag-header} this is {@link #getValue(String)} with no tag.
+     */
+    public TaggedValue getTaggedValue(String key) {
+        if (!etagHeader) {
+            return new TaggedValue(getValue(key), null);
+        }
+        return call("get", key, () -> {
+            hotKeys.recordRead(key);
+            writeBehind.flush(key);
+            return singleFlight.execute(new TaggedRead(key), () -> {
+                RedisTemplate<String, Object> template = shards.forKey(key);
+                byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+                byte[] stored = template.execute(
+                        (RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+                Object value = stored == null ? null : template.getValueSerializer().deserialize(stored);
+                return new TaggedValue(value, stored == null ? null : EtagRedisSerializer.tagOf(stored));
+            });
+        });
+    }
+
+    /**
+     * ETag (without quotes) stored at the front of the current value, read with {@code GETRANGE} so the value is
+     * not transferred. {@code null} when {@code etag-header} is off, the key does not exist or its value was
+     * written without one. A queued write-behind value is flushed first, like {@link #getRawValue(String)}.
+     */
+    public String getETag(String key) {
+        if (!etagHeader) {
+            return null;
+        }
+        return call("get-etag", key, () -> {
+            hotKeys.recordRead(key);
+            writeBehind.flush(key);
+            byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+            byte[] header = shards.forKey(key).execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().getRange(rawKey, 0, EtagRedisSerializer.HEADER_SIZE - 1));
+            return header == null ? null : EtagRedisSerializer.tagOf(header);
+        });
     }
-    
+
+    /**
+     * Deletes the value together with its {@link #setIfVersion} counter, in one pipeline.
+     */
     public Boolean deleteValue(String key) {
-        return redisTemplate.delete(key);
+        return call("delete", key, () -> {
+            hotKeys.recordWrite(key);
+            writeBehind.discard(key);
+            Object result = RedisShards.pipelined(shards.forKey(key), operations -> {
+                if (buckets.isEnabled()) {
+                    buckets.delete(operations, key);
+                } else {
+                    operations.delete(key);
+                }
+                operations.unlink(key + VERSION_SUFFIX);
+            }).get(0);
+            if (result instanceof RuntimeException e) {
+                throw e;
+            }
+            afterWrite(key);
+            return result instanceof Long count ? count > 0 : Boolean.TRUE.equals(result);
+        });
     }
-    
+
     public Boolean hasKey(String key) {
-        return redisTemplate.hasKey(key);
+        return call("exists", key, () -> {
+            hotKeys.recordRead(key);
+            WriteBehindQueue.PendingWrite pendingWrite = writeBehind.peek(key);
+            if (pendingWrite != null) {
+                return !pendingWrite.isExpired();
+            }
+            if (nearCache.get(key) != null) {
+                return true;
+            }
+            if (buckets.isEnabled()) {
+                return buckets.get(shards.forKey(key), key, null).value() != null;
+            }
+            return shards.forKey(key).hasKey(key);
+        });
     }
-    
+
     public Boolean setExpire(String key, long timeout, TimeUnit timeUnit) {
-        return redisTemplate.expire(key, timeout, timeUnit);
+        return call("expire", key, () -> {
+            hotKeys.recordWrite(key);
+            writeBehind.flush(key);
+            if (buckets.isEnabled()) {
+                return buckets.expire(shards.forKey(key), key, Duration.of(timeout, timeUnit.toChronoUnit()));
+            }
+            return shards.forKey(key).expire(key, timeout, timeUnit);
+        });
     }
-    
+
     public Long getExpire(String key) {
-        return redisTemplate.getExpire(key);
+        return call("ttl", key, () -> {
+            hotKeys.recordRead(key);
+            writeBehind.flush(key);
+            if (buckets.isEnabled()) {
+                return buckets.get(shards.forKey(key), key, null).ttl();
+            }
+            return shards.forKey(key).getExpire(key);
+        });
+    }
+
+    /**
+     * Value and TTL in one round trip, read atomically by a Lua script.
+     */
+    public ValueWithTtl getWithTtl(String key) {
+        return call("get-with-ttl", key, () -> {
+            hotKeys.recordRead(key);
+            writeBehind.flush(key);
+            return readWithTtl(key);
+        });
+    }
+
+    /**
+     * Compare-and-set on a version counter kept in {@code <key>:version}. The counter lives as long as the value:
+     * a missing value is version 0 whatever the counter still holds, {@link #deleteValue} removes the counter
+     * and a versioned write gives it the value's TTL. Plain {@code set} does not change the counter.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public VersionedWrite setIfVersion(String key, Object value, long expectedVersion, Duration ttl) {
+        return call("set-if-version", key, () -> {
+            hotKeys.recordWrite(key);
+            writeBehind.discard(key);
+            RedisTemplate<String, Object> template = shards.forKey(key);
+            VersionedWrite written;
+            if (buckets.isEnabled()) {
+                written = buckets.setIfVersion(template, key, key + VERSION_SUFFIX, value, expectedVersion, ttl);
+            } else {
+                RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) template.getValueSerializer();
+                List<Long> result = template.execute(LuaScripts.SET_IF_VERSION,
+                        RedisSerializer.byteArray(), (RedisSerializer<List>) (RedisSerializer) RedisSerializer.byteArray(),
+                        List.of(key, key + VERSION_SUFFIX),
+                        ascii(expectedVersion), valueSerializer.serialize(value), ascii(ttl == null ? 0 : ttl.toSeconds()));
+                written = new VersionedWrite(result.get(0) == 1, result.get(1));
+            }
+
+            if (written.applied()) {
+                afterWrite(key);
+            }
+            return written;
+        });
+    }
+
+    /**
+     * {@code GETEX}: returns the value and resets its expiry in one atomic command.
+     */
+    public Object getAndRefreshExpiry(String key, Duration ttl) {
+        return call("get-and-refresh", key, () -> {
+            hotKeys.recordRead(key);
+            writeBehind.flush(key);
+            if (buckets.isEnabled()) {
+                return buckets.get(shards.forKey(key), key, ttl).value();
+            }
+            return values(key).getAndExpire(key, ttl);
+        });
+    }
+
+    /**
+     * Cache-aside read that stores the value in a {@link CachedValue} envelope. Each read may trigger an early
+     * recompute (XFetch); the recompute takes a short {@code <key>:lock} so only one node calls the loader while
+     * the others keep returning the current value. A cold miss waits up to {@code lock-timeout} for the lock
+     * holder before computing on its own. The loader runs outside the concurrency limit.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(String key, Duration ttl, Supplier<T> loader) {
+        hotKeys.recordRead(key);
+        CachedValue cached = readCached(key);
+        if (cached != null && !cached.shouldRefresh(compute.getBeta(), System.currentTimeMillis())) {
+            return (T) cached.value();
+        }
+        return singleFlight.execute(new ComputeCall(key), () -> recompute(key, ttl, loader, cached));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T recompute(String key, Duration ttl, Supplier<T> loader, CachedValue stale) {
+        RedisTemplate<String, Object> template = shards.forKey(key);
+        String lockKey = key + LOCK_SUFFIX;
+        String token = UUID.randomUUID().toString();
+        Boolean locked = call("lock", key, () ->
+                template.opsForValue().setIfAbsent(lockKey, token, compute.getLockTimeout()));
+
+        if (!Boolean.TRUE.equals(locked)) {
+            if (stale != null) {
+                return (T) stale.value();
+            }
+            long deadline = System.nanoTime() + compute.getLockTimeout().toNanos();
+            while (System.nanoTime() - deadline < 0) {
+                try {
+                    Thread.sleep(compute.getPollInterval().toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                CachedValue computed = readCached(key);
+                if (computed != null) {
+                    return (T) computed.value();
+                }
+            }
+            return computeAndStore(key, ttl, loader);
+        }
+
+        try {
+            return computeAndStore(key, ttl, loader);
+        } finally {
+            unlock(template, key, lockKey, token);
+        }
+    }
+
+    /**
+     * Releases the recompute lock outside the limiter: a rejection here must neither replace the value that was
+     * just computed nor leave the lock held. A failed release is logged and the lock expires on its own.
+     */
+    private void unlock(RedisTemplate<String, Object> template, String key, String lockKey, String token) {
+        try {
+            metrics.record("unlock", key, () -> template.execute(LuaScripts.RELEASE_LOCK, List.of(lockKey), token));
+        } catch (RuntimeException e) {
+            log.warn("Could not release recompute lock {}, it expires after {}", lockKey,
+                    compute.getLockTimeout(), e);
+        }
+    }
+
+    private <T> T computeAndStore(String key, Duration ttl, Supplier<T> loader) {
+        long start = System.nanoTime();
+        T value = loader.get();
+        long computeMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        CachedValue entry = new CachedValue(value, computeMillis, System.currentTimeMillis() + ttl.toMillis());
+
+        run("set", key, () -> {
+            hotKeys.recordWrite(key);
+            writeBehind.discard(key);
+            write(key, entry, ttl);
+            afterWrite(key);
+        });
+        return value;
+    }
+
+    private CachedValue readCached(String key) {
+        Object value = call("get", key, () -> read(key));
+        return value instanceof CachedValue cached ? cached : null;
+    }
+
+    public Map<String, Object> getValues(List<String> keys) {
+        return call("mget", () -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            List<String> misses = new ArrayList<>();
+            for (String key : new LinkedHashSet<>(keys)) {
+                hotKeys.recordRead(key);
+                WriteBehindQueue.PendingWrite pendingWrite = writeBehind.peek(key);
+                if (pendingWrite != null) {
+                    values.put(key, pendingWrite.isExpired() ? null : pendingWrite.value());
+                    continue;
+                }
+                Object cached = nearCache.get(key);
+                values.put(key, cached);
+                if (cached == null) {
+                    misses.add(key);
+                }
+            }
+            if (misses.isEmpty()) {
+                return values;
+            }
+
+            if (!nearCache.isAvailable()) {
+                values.putAll(fetch(misses, this::multiGet));
+                return values;
+            }
+            long stamp = nearCache.stamp();
+            fetch(misses, this::multiGetWithTtl).forEach((key, read) -> {
+                values.put(key, read.value());
+                nearCache.put(key, read.value(), read.ttl(), stamp);
+            });
+            return values;
+        });
+    }
+
+    /**
+     * Values as currently stored in Redis, skipping the near cache and queued write-behind values. Used by
+     * readers that were told a key changed in Redis and must not see a local copy from before the change.
+     */
+    public Map<String, Object> getStoredValues(List<String> keys) {
+        return call("mget", () -> fetch(new ArrayList<>(new LinkedHashSet<>(keys)), this::multiGet));
+    }
+
+    private <T> Map<String, T> fetch(List<String> keys,
+                                     BiFunction<RedisTemplate<String, Object>, List<String>, List<T>> multiGet) {
+        Map<String, T> values = new LinkedHashMap<>();
+        Map<RedisTemplate<String, Object>, List<String>> groups = shards.partition(keys, Function.identity());
+        List<List<T>> fetched = shards.fanOut(groups, multiGet);
+        int group = 0;
+        for (List<String> shardKeys : groups.values()) {
+            List<T> shardValues = fetched.get(group++);
+            for (int i = 0; i < shardKeys.size(); i++) {
+                values.put(shardKeys.get(i), shardValues != null ? shardValues.get(i) : null);
+            }
+        }
+        return values;
+    }
+
+    public Map<String, Boolean> setValues(List<KeyValueEntry> entries) {
+        return call("mset", () -> {
+            Map<String, KeyValueEntry> latest = new LinkedHashMap<>();
+            entries.forEach(entry -> latest.put(entry.key(), entry));
+            List<KeyValueEntry> batch = new ArrayList<>(latest.values());
+            if (batch.isEmpty()) {
+                return new LinkedHashMap<>();
+            }
+            batch.forEach(entry -> {
+                hotKeys.recordWrite(entry.key());
+                writeBehind.discard(entry.key());
+            });
+
+            Map<String, Object> results = shards.pipelined(batch, KeyValueEntry::key, (operations, entry) -> {
+                if (buckets.isEnabled()) {
+                    buckets.set(operations, entry.key(), entry.value(), entry.hasTtl() ? Duration.ofSeconds(entry.ttl()) : null);
+                } else if (entry.hasTtl()) {
+                    operations.opsForValue().set(entry.key(), entry.value(), entry.ttl(), TimeUnit.SECONDS);
+                } else {
+                    operations.opsForValue().set(entry.key(), entry.value());
+                }
+            });
+
+            Map<String, Boolean> written = new LinkedHashMap<>();
+            for (KeyValueEntry entry : batch) {
+                written.put(entry.key(), !(results.get(entry.key()) instanceof Throwable));
+            }
+            afterWrites(written.keySet());
+            return written;
+        });
+    }
+
+    public Map<String, Boolean> deleteValues(List<String> keys) {
+        return call("mdelete", () -> {
+            List<String> batch = new ArrayList<>(new LinkedHashSet<>(keys));
+            if (batch.isEmpty()) {
+                return new LinkedHashMap<>();
+            }
+            batch.forEach(key -> {
+                hotKeys.recordWrite(key);
+                writeBehind.discard(key);
+            });
+
+            Map<String, Object> results = shards.pipelined(batch, Function.identity(), (operations, key) -> {
+                if (buckets.isEnabled()) {
+                    buckets.delete(operations, key);
+                } else {
+                    operations.delete(key);
+                }
+            });
+
+            shards.fanOut(shards.partition(batch, Function.identity()), (template, group) ->
+                    template.unlink(group.stream().map(key -> key + VERSION_SUFFIX).toList()));
+
+            Map<String, Boolean> deleted = new LinkedHashMap<>();
+            for (String key : batch) {
+                Object result = results.get(key);
+                deleted.put(key, result instanceof Long count ? count > 0 : Boolean.TRUE.equals(result));
+            }
+            afterWrites(batch);
+            return deleted;
+        });
+    }
+
+    /**
+     * Walks the keyspace of every shard with SCAN and hands entries to {@code chunks} {@code count} keys at a time,
+     * so only one chunk is ever held in memory. Keys that expire or change type between SCAN and GET are skipped,
+     * and so are the manifests and chunks of large values.
+     */
+    public void scan(String match, int count, Consumer<List<KeyValueEntry>> chunks) {
+        if (buckets.isEnabled()) {
+            for (RedisTemplate<String, Object> template : shards.all()) {
+                buckets.scanKeys(template, match, count, keys -> chunks.accept(fetchEntries(template, keys)));
+            }
+            return;
+        }
+        ScanOptions options = ScanOptions.scanOptions().match(match).count(count).build();
+        for (RedisTemplate<String, Object> template : shards.all()) {
+            try (Cursor<String> cursor = template.scan(options)) {
+                List<String> keys = new ArrayList<>(count);
+                while (cursor.hasNext()) {
+                    String key = cursor.next();
+                    if (LargeValueService.isLargeValueKey(key)) {
+                        continue;
+                    }
+                    keys.add(key);
+                    if (keys.size() >= count) {
+                        chunks.accept(fetchEntries(template, keys));
+                        keys.clear();
+                    }
+                }
+                if (!keys.isEmpty()) {
+                    chunks.accept(fetchEntries(template, keys));
+                }
+            }
+        }
+    }
+
+    private List<KeyValueEntry> fetchEntries(RedisTemplate<String, Object> template, List<String> keys) {
+        return call("scan", () -> {
+            if (buckets.isEnabled()) {
+                return fetchBucketEntries(template, keys);
+            }
+            List<Object> results = RedisShards.pipelined(template, operations -> keys.forEach(key -> {
+                operations.opsForValue().get(key);
+                operations.getExpire(key);
+            }));
+
+            List<KeyValueEntry> entries = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                Object value = resultAt(results, 2 * i);
+                if (value == null || value instanceof Throwable) {
+                    continue;
+                }
+                Object ttl = resultAt(results, 2 * i + 1);
+                entries.add(new KeyValueEntry(keys.get(i), value, ttl instanceof Long seconds && seconds > 0 ? seconds : null));
+            }
+            return entries;
+        });
+    }
+
+    private List<KeyValueEntry> fetchBucketEntries(RedisTemplate<String, Object> template, List<String> keys) {
+        List<Object> results = RedisShards.pipelined(template, operations -> keys.forEach(key -> buckets.get(operations, key)));
+
+        List<KeyValueEntry> entries = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (!(resultAt(results, i) instanceof List<?> result) || result.get(0) == null) {
+                continue;
+            }
+            Object ttl = result.get(1);
+            entries.add(new KeyValueEntry(keys.get(i), result.get(0), ttl instanceof Long seconds && seconds > 0 ? seconds : null));
+        }
+        return entries;
+    }
+
+    private List<Object> multiGet(RedisTemplate<String, Object> template, List<String> keys) {
+        if (!buckets.isEnabled()) {
+            return template.opsForValue().multiGet(keys);
+        }
+        List<Object> results = RedisShards.pipelined(template, operations -> keys.forEach(key -> buckets.get(operations, key)));
+        List<Object> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            values.add(resultAt(results, i) instanceof List<?> result ? result.get(0) : null);
+        }
+        return values;
+    }
+
+    /**
+     * Values with their TTL in one pipeline, for filling the near cache: {@code GET} and {@code TTL} per key, or
+     * the bucket read, which already returns both.
+     */
+    private List<ValueWithTtl> multiGetWithTtl(RedisTemplate<String, Object> template, List<String> keys) {
+        List<Object> results = RedisShards.pipelined(template, operations -> keys.forEach(key -> {
+            if (buckets.isEnabled()) {
+                buckets.get(operations, key);
+            } else {
+                operations.opsForValue().get(key);
+                operations.getExpire(key);
+            }
+        }));
+        List<ValueWithTtl> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (buckets.isEnabled()) {
+                values.add(resultAt(results, i) instanceof List<?> result
+                        ? new ValueWithTtl(result.get(0), (Long) result.get(1))
+                        : new ValueWithTtl(null, -2L));
+            } else {
+                Object value = resultAt(results, 2 * i);
+                values.add(new ValueWithTtl(value instanceof Throwable ? null : value,
+                        resultAt(results, 2 * i + 1) instanceof Long ttl ? ttl : -2L));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads through the near cache when it is in use: the value is read with its TTL, so the cached copy never
+     * outlives the key.
+     */
+    private Object readThroughNearCache(String key) {
+        if (!nearCache.isAvailable()) {
+            return read(key);
+        }
+        long stamp = nearCache.stamp();
+        ValueWithTtl read = readWithTtl(key);
+        nearCache.put(key, read.value(), read.ttl(), stamp);
+        return read.value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValueWithTtl readWithTtl(String key) {
+        if (buckets.isEnabled()) {
+            return buckets.get(shards.forKey(key), key, null);
+        }
+        List<Object> result = shards.forKey(key).execute(LuaScripts.GET_WITH_TTL, List.of(key));
+        return new ValueWithTtl(result.get(0), (Long) result.get(1));
+    }
+
+    private Object read(String key) {
+        if (buckets.isEnabled()) {
+            return buckets.get(shards.forKey(key), key, null).value();
+        }
+        return values(key).get(key);
+    }
+
+    private void write(String key, Object value, Duration ttl) {
+        if (buckets.isEnabled()) {
+            buckets.set(shards.forKey(key), key, value, ttl);
+        } else if (ttl == null) {
+            values(key).set(key, value);
+        } else {
+            values(key).set(key, value, ttl);
+        }
+    }
+
+    private static byte[] ascii(long number) {
+        return Long.toString(number).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private <T> T call(String operation, Supplier<T> body) {
+        return call(operation, null, body);
+    }
+
+    private <T> T call(String operation, String key, Supplier<T> body) {
+        return limiter.execute(() -> metrics.record(operation, key, body));
+    }
+
+    private void run(String operation, String key, Runnable body) {
+        call(operation, key, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    private void afterWrite(String key) {
+        singleFlight.forget(key);
+        singleFlight.forget(new TaggedRead(key));
+        nearCache.invalidate(key);
+    }
+
+    private void afterWrites(Collection<String> keys) {
+        for (String key : keys) {
+            singleFlight.forget(key);
+            singleFlight.forget(new TaggedRead(key));
+        }
+        nearCache.invalidateAll(keys);
+    }
+
+    private ValueOperations<String, Object> values(String key) {
+        return shards.forKey(key).opsForValue();
+    }
+
+    private static Object resultAt(List<Object> results, int index) {
+        return index < results.size() ? results.get(index) : null;
+    }
+
+    /**
+     * Single-flight key of a {@link #getOrCompute} recompute, kept apart from the plain reads of the same key.
+     */
+    private record ComputeCall(String key) {
+    }
+
+    /**
+     * Single-flight key of a {@link #getTaggedValue} read, whose result also carries the tag.
+     */
+    private record TaggedRead(String key) {
     }
-}
\ No newline at end of file
+}
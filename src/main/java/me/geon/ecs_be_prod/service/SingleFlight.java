@@ -0,0 +1,85 @@
+package me.geon.ecs_be_prod.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one call. Followers wait for the leader's result;
+ * if the leader takes longer than {@code wait-timeout} they fall back to loading on their own.
+ * <p>
+ * Calls are matched with {@code equals}, so a caller that coalesces a different kind of load for the same Redis
+ * key passes its own key type instead of a string prefix that a user key could also contain.
+ */
+@Component
+public class SingleFlight {
+
+    private final AppRedisProperties.SingleFlight properties;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsed;
+
+    public SingleFlight(AppRedisProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getSingleFlight();
+        this.collapsed = Counter.builder("redis.single-flight.collapsed")
+                .description("Reads that joined an in-flight Redis call instead of issuing their own")
+                .register(meterRegistry);
+        meterRegistry.gauge("redis.single-flight.in-flight", inFlight, ConcurrentMap::size);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            collapsed.increment();
+            return (T) await(leader, loader);
+        }
+
+        try {
+            T value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    public void forget(Object key) {
+        inFlight.remove(key);
+    }
+
+    private Object await(CompletableFuture<Object> leader, Supplier<?> loader) {
+        try {
+            return leader.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight Redis call", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package me.geon.ecs_be_prod.service;
+
+/**
+ * A value with the ETag stored in front of it; {@code etag} is {@code null} when the value carries none.
+ */
+public record TaggedValue(Object value, String etag) {
+}
@@ -0,0 +1,8 @@
+package me.geon.ecs_be_prod.service;
+
+public record ValueWithTtl(Object value, Long ttl) {
+
+    public boolean isFound() {
+        return value != null;
+    }
+}
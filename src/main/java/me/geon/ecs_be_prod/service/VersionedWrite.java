@@ -0,0 +1,4 @@
+package me.geon.ecs_be_prod.service;
+
+public record VersionedWrite(boolean applied, long version) {
+}
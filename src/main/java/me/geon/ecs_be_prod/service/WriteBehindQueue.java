@@ -0,0 +1,335 @@
+package me.geon.ecs_be_prod.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.geon.ecs_be_prod.cache.NearCache;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.shard.RedisShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers SETs and flushes them in pipelined batches from a background thread.
+ * <p>
+ * {@code pending} holds the latest write per key, so repeated writes within one window are merged.
+ * Keys that are being written to Redis move to {@code flushing}; a key is never in flight twice, which
+ * keeps writes for the same key in order. Reads look at both maps before going to Redis.
+ * <p>
+ * A write that fails goes back to {@code pending} and is retried after {@code retry-backoff}, doubling
+ * each time, unless a newer write for the key was queued meanwhile. After {@code max-attempts} it is
+ * dropped with a warning, since the caller was already told it succeeded.
+ */
+@Component
+public class WriteBehindQueue implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private final AppRedisProperties.WriteBehind properties;
+    private final RedisShards shards;
+    private final BucketStore buckets;
+    private final NearCache nearCache;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final LinkedHashMap<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final Map<String, PendingWrite> flushing = new HashMap<>();
+
+    private final Counter merged;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter retried;
+    private final Counter rejected;
+
+    private final Thread flusher;
+    private volatile boolean running;
+
+    public WriteBehindQueue(AppRedisProperties properties,
+                            RedisShards shards,
+                            BucketStore buckets,
+                            NearCache nearCache,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties.getWriteBehind();
+        this.shards = shards;
+        this.buckets = buckets;
+        this.nearCache = nearCache;
+        this.merged = meterRegistry.counter("redis.write-behind.merged");
+        this.written = meterRegistry.counter("redis.write-behind.written");
+        this.failed = meterRegistry.counter("redis.write-behind.failed");
+        this.retried = meterRegistry.counter("redis.write-behind.retried");
+        this.rejected = meterRegistry.counter("redis.write-behind.rejected");
+        meterRegistry.gauge("redis.write-behind.pending", this, WriteBehindQueue::pendingCount);
+
+        this.running = this.properties.isEnabled();
+        this.flusher = new Thread(this::runFlusher, "redis-write-behind");
+        this.flusher.setDaemon(true);
+        if (running) {
+            flusher.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Queues a write. Returns {@code false} when write-behind is off or the queue stayed full for
+     * {@code offer-timeout}; the caller then has to write synchronously after {@link #discard(String)}.
+     */
+    public boolean offer(String key, Object value, Duration ttl) {
+        if (!running) {
+            return false;
+        }
+        PendingWrite write = new PendingWrite(key, value, ttl == null ? 0 : System.nanoTime() + ttl.toNanos());
+        long remaining = properties.getOfferTimeout().toNanos();
+
+        lock.lock();
+        try {
+            if (pending.containsKey(key)) {
+                pending.put(key, write);
+                merged.increment();
+                return true;
+            }
+            while (pending.size() >= properties.getQueueCapacity()) {
+                if (remaining <= 0 || !running) {
+                    rejected.increment();
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            pending.put(key, write);
+            if (pending.size() >= properties.getFlushSize()) {
+                flushRequested.signal();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public PendingWrite peek(String key) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        lock.lock();
+        try {
+            PendingWrite write = pending.get(key);
+            return write != null ? write : flushing.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops a queued write for the key and waits until no write for it is in flight, so a following
+     * synchronous command cannot be overtaken by an older buffered value.
+     */
+    public void discard(String key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            awaitNotFlushing(key);
+            if (pending.remove(key) != null) {
+                notFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes any queued value for the key right away, for commands that need the key to exist in Redis.
+     */
+    public void flush(String key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        PendingWrite write;
+        lock.lock();
+        try {
+            awaitNotFlushing(key);
+            write = pending.remove(key);
+            if (write == null) {
+                return;
+            }
+            flushing.put(key, write);
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+        writeBatch(List.of(write));
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size() + flushing.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitNotFlushing(String key) {
+        while (flushing.containsKey(key)) {
+            flushed.awaitUninterruptibly();
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            List<PendingWrite> batch = nextBatch();
+            if (batch == null) {
+                return;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        }
+    }
+
+    private List<PendingWrite> nextBatch() {
+        lock.lock();
+        try {
+            if (running && pending.size() < properties.getFlushSize()) {
+                flushRequested.awaitNanos(properties.getFlushInterval().toNanos());
+            }
+            if (!running && pending.isEmpty()) {
+                return null;
+            }
+
+            List<PendingWrite> batch = new ArrayList<>();
+            long now = System.nanoTime();
+            Iterator<PendingWrite> iterator = pending.values().iterator();
+            while (iterator.hasNext() && batch.size() < properties.getFlushSize()) {
+                PendingWrite write = iterator.next();
+                if (flushing.containsKey(write.key()) || (running && write.retryAt() - now > 0)) {
+                    continue;
+                }
+                iterator.remove();
+                flushing.put(write.key(), write);
+                batch.add(write);
+            }
+            if (!batch.isEmpty()) {
+                notFull.signalAll();
+            }
+            return batch;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        Map<String, Object> results;
+        try {
+            long now = System.nanoTime();
+            results = shards.pipelined(batch, PendingWrite::key, (operations, write) -> {
+                if (buckets.isEnabled()) {
+                    if (write.expiresAt() == 0) {
+                        buckets.set(operations, write.key(), write.value(), null);
+                    } else if (write.expiresAt() - now > 0) {
+                        buckets.set(operations, write.key(), write.value(),
+                                Duration.ofMillis(Math.max(1, TimeUnit.NANOSECONDS.toMillis(write.expiresAt() - now))));
+                    } else {
+                        buckets.delete(operations, write.key());
+                    }
+                } else if (write.expiresAt() == 0) {
+                    operations.opsForValue().set(write.key(), write.value());
+                } else if (write.expiresAt() - now > 0) {
+                    operations.opsForValue().set(write.key(), write.value(),
+                            Math.max(1, TimeUnit.NANOSECONDS.toMillis(write.expiresAt() - now)),
+                            TimeUnit.MILLISECONDS);
+                } else {
+                    operations.delete(write.key());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush of {} keys failed", batch.size(), e);
+            results = null;
+        }
+
+        lock.lock();
+        try {
+            for (PendingWrite write : batch) {
+                flushing.remove(write.key(), write);
+                if (results == null || results.get(write.key()) instanceof Throwable) {
+                    retryOrDrop(write, results == null ? null : (Throwable) results.get(write.key()));
+                } else {
+                    written.increment();
+                }
+            }
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        nearCache.invalidateAll(batch.stream().map(PendingWrite::key).toList());
+    }
+
+    private void retryOrDrop(PendingWrite write, Throwable cause) {
+        if (pending.containsKey(write.key())) {
+            return;
+        }
+        int attempts = write.attempts() + 1;
+        if (attempts < properties.getMaxAttempts()) {
+            long backoff = properties.getRetryBackoff().toNanos() << Math.min(attempts - 1, 10);
+            pending.put(write.key(), new PendingWrite(write.key(), write.value(), write.expiresAt(),
+                    attempts, System.nanoTime() + backoff));
+            retried.increment();
+            return;
+        }
+        failed.increment();
+        log.warn("Dropping write-behind write for key {} after {} attempts", write.key(), attempts, cause);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            flushRequested.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        if (pendingCount() > 0) {
+            log.warn("Write-behind queue shut down with {} unflushed writes", pendingCount());
+        }
+    }
+
+    public record PendingWrite(String key, Object value, long expiresAt, int attempts, long retryAt) {
+
+        public PendingWrite(String key, Object value, long expiresAt) {
+            this(key, value, expiresAt, 0, 0);
+        }
+
+        public boolean isExpired() {
+            return expiresAt != 0 && expiresAt - System.nanoTime() <= 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package me.geon.ecs_be_prod.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consistent-hash ring with {@code virtualNodes} points per node. Points are derived from the node name, not its
+ * position in the list, so adding or removing a node only moves the keys on that node's arcs (about 1/N).
+ * <p>
+ * Like Redis Cluster, only the part of a key between the first {@code {} and the following {@code }} is hashed
+ * when it is non-empty, so keys sharing a hash tag always land on the same node.
+ */
+public final class ConsistentHashRing<T> {
+
+    private final long[] points;
+    private final List<T> owners;
+
+    public ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Ring needs at least one node");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive but was " + virtualNodes);
+        }
+
+        List<Point<T>> ring = new ArrayList<>(nodes.size() * virtualNodes);
+        nodes.forEach((name, node) -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.add(new Point<>(hash(name + "#" + i), node));
+            }
+        });
+        ring.sort(Comparator.comparingLong(Point::hash));
+
+        this.points = new long[ring.size()];
+        this.owners = new ArrayList<>(ring.size());
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash();
+            owners.add(ring.get(i).node());
+        }
+    }
+
+    public T get(String key) {
+        int index = Arrays.binarySearch(points, hash(hashTag(key)));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners.get(index == points.length ? 0 : index);
+    }
+
+    static String hashTag(String key) {
+        int start = key.indexOf('{');
+        if (start >= 0) {
+            int end = key.indexOf('}', start + 1);
+            if (end > start + 1) {
+                return key.substring(start + 1, end);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finalizer, which spreads the short, similar
+     * strings that virtual node names and typical keys are.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private record Point<T>(long hash, T node) {
+    }
+}
@@ -0,0 +1,199 @@
+package me.geon.ecs_be_prod.shard;
+
+import me.geon.ecs_be_prod.metrics.RedisTrace;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Routes keys to one {@link RedisTemplate} per Redis node. Multi-key work is split per node and the groups run
+ * in parallel, with the first group on the calling thread. With a single node everything runs inline.
+ */
+public class RedisShards implements DisposableBean {
+
+    private final List<RedisTemplate<String, Object>> templates;
+    private final ConsistentHashRing<RedisTemplate<String, Object>> ring;
+    private final ExecutorService executor;
+    private final boolean ownsConnections;
+
+    public RedisShards(RedisTemplate<String, Object> template) {
+        this.templates = List.of(template);
+        this.ring = null;
+        this.executor = null;
+        this.ownsConnections = false;
+    }
+
+    public RedisShards(Map<String, RedisTemplate<String, Object>> nodes, int virtualNodes) {
+        this.templates = List.copyOf(nodes.values());
+        this.ring = new ConsistentHashRing<>(nodes, virtualNodes);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "redis-shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ownsConnections = true;
+    }
+
+    public RedisTemplate<String, Object> forKey(String key) {
+        return ring == null ? templates.get(0) : ring.get(key);
+    }
+
+    public List<RedisTemplate<String, Object>> all() {
+        return templates;
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public <T> Map<RedisTemplate<String, Object>, List<T>> partition(Collection<T> items, Function<T, String> keyOf) {
+        if (ring == null) {
+            return Map.of(templates.get(0), new ArrayList<>(items));
+        }
+        Map<RedisTemplate<String, Object>, List<T>> groups = new IdentityHashMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(ring.get(keyOf.apply(item)), template -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    /**
+     * Runs {@code work} once per group and returns the results in the iteration order of {@code groups}.
+     */
+    public <T, R> List<R> fanOut(Map<RedisTemplate<String, Object>, List<T>> groups,
+                                 BiFunction<RedisTemplate<String, Object>, List<T>, R> work) {
+        List<Map.Entry<RedisTemplate<String, Object>, List<T>>> entries = new ArrayList<>(groups.entrySet());
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        if (entries.size() == 1) {
+            return Collections.singletonList(work.apply(entries.get(0).getKey(), entries.get(0).getValue()));
+        }
+
+        List<CompletableFuture<R>> futures = new ArrayList<>(entries.size());
+        for (int i = 1; i < entries.size(); i++) {
+            Map.Entry<RedisTemplate<String, Object>, List<T>> entry = entries.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> work.apply(entry.getKey(), entry.getValue()), executor));
+        }
+
+        List<R> results = new ArrayList<>(entries.size());
+        results.add(work.apply(entries.get(0).getKey(), entries.get(0).getValue()));
+        try {
+            futures.forEach(future -> results.add(future.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Pipelines exactly one command per item on the item's node and returns the result per key.
+     * Failed commands are reported as the {@link Throwable} Redis returned.
+     */
+    public <T> Map<String, Object> pipelined(Collection<T> items,
+                                             Function<T, String> keyOf,
+                                             BiConsumer<RedisOperations<String, Object>, T> command) {
+        Map<RedisTemplate<String, Object>, List<T>> groups = partition(items, keyOf);
+        List<List<Object>> results = fanOut(groups, (template, group) ->
+                pipelined(template, operations -> group.forEach(item -> command.accept(operations, item))));
+
+        Map<String, Object> byKey = new HashMap<>(items.size() * 2);
+        int index = 0;
+        for (List<T> group : groups.values()) {
+            List<Object> groupResults = results.get(index++);
+            for (int i = 0; i < group.size(); i++) {
+                byKey.put(keyOf.apply(group.get(i)), i < groupResults.size() ? groupResults.get(i) : null);
+            }
+        }
+        return byKey;
+    }
+
+    /**
+     * Runs {@code commands} in one pipeline on {@code template}. Values are decoded one result at a time with
+     * the template's value serializer, so a command Redis rejected or a value that does not decode is reported
+     * as the {@link Throwable} in its slot instead of failing the whole batch.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Object> pipelined(RedisTemplate<String, Object> template,
+                                         Consumer<RedisOperations<String, Object>> commands) {
+        RedisTrace.ConnectionWait connectionWait = RedisTrace.connectionWait();
+        List<Object> results;
+        try {
+            results = template.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    connectionWait.acquired();
+                    commands.accept((RedisOperations<String, Object>) operations);
+                    return null;
+                }
+            }, RedisSerializer.byteArray());
+        } catch (RedisPipelineException e) {
+            results = e.getPipelineResult();
+        }
+
+        List<Object> values = new ArrayList<>(results.size());
+        for (Object result : results) {
+            try {
+                values.add(deserialize(result, template.getValueSerializer()));
+            } catch (SerializationException e) {
+                values.add(e);
+            }
+        }
+        return values;
+    }
+
+    private static Object deserialize(Object result, RedisSerializer<?> serializer) {
+        if (result instanceof byte[] bytes) {
+            return serializer.deserialize(bytes);
+        }
+        if (result instanceof List<?> nested) {
+            List<Object> values = new ArrayList<>(nested.size());
+            for (Object element : nested) {
+                values.add(deserialize(element, serializer));
+            }
+            return values;
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (ownsConnections) {
+            for (RedisTemplate<String, Object> template : templates) {
+                RedisConnectionFactory connectionFactory = template.getConnectionFactory();
+                if (connectionFactory instanceof DisposableBean disposable) {
+                    disposable.destroy();
+                }
+            }
+        }
+    }
+}
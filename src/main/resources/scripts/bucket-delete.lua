@@ -0,0 +1,19 @@
+-- KEYS[1] = bucket, ARGV[1] = field, ARGV[2] = '1' for native field TTL, '0' for emulated TTL
+-- Returns 1 when a live field was removed, 0 when it was missing or already expired
+if ARGV[2] == '1' then
+    return redis.call('HDEL', KEYS[1], ARGV[1])
+end
+
+local raw = redis.call('HGET', KEYS[1], ARGV[1])
+if not raw then
+    return 0
+end
+redis.call('HDEL', KEYS[1], ARGV[1])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local expiresAt = tonumber(string.sub(raw, 1, string.find(raw, '|', 1, true) - 1))
+if expiresAt > 0 and expiresAt <= now then
+    return 0
+end
+return 1
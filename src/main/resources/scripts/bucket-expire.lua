@@ -0,0 +1,31 @@
+-- KEYS[1] = bucket, ARGV[1] = field, ARGV[2] = ttl in milliseconds (<= 0 deletes the field, like EXPIRE)
+-- ARGV[3] = '1' for native field TTL, '0' for emulated TTL
+-- Returns 1 when the expiry was set, 0 when the field is missing
+local ttl = tonumber(ARGV[2])
+
+if ARGV[3] == '1' then
+    if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then
+        return 0
+    end
+    if ttl <= 0 then
+        redis.call('HDEL', KEYS[1], ARGV[1])
+    else
+        redis.call('HPEXPIRE', KEYS[1], ttl, 'FIELDS', 1, ARGV[1])
+    end
+    return 1
+end
+
+local raw = redis.call('HGET', KEYS[1], ARGV[1])
+if not raw then
+    return 0
+end
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local separator = string.find(raw, '|', 1, true)
+local expiresAt = tonumber(string.sub(raw, 1, separator - 1))
+if (expiresAt > 0 and expiresAt <= now) or ttl <= 0 then
+    redis.call('HDEL', KEYS[1], ARGV[1])
+    return (expiresAt > 0 and expiresAt <= now) and 0 or 1
+end
+redis.call('HSET', KEYS[1], ARGV[1], string.format('%d', now + ttl) .. '|' .. string.sub(raw, separator + 1))
+return 1
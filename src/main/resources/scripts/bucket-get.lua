@@ -0,0 +1,34 @@
+-- KEYS[1] = bucket, ARGV[1] = field, ARGV[2] = '1' for native field TTL (HEXPIRE), '0' for emulated TTL
+-- ARGV[3] = new ttl in milliseconds to set after reading (0 = keep the current expiry)
+-- Emulated values are stored as '<expires at in ms, 0 = never>|<value>'
+-- Returns {value or nil, ttl in seconds (-1 no expiry, -2 missing)}
+local raw = redis.call('HGET', KEYS[1], ARGV[1])
+if not raw then
+    return { false, -2 }
+end
+local refresh = tonumber(ARGV[3])
+
+if ARGV[2] == '1' then
+    if refresh > 0 then
+        redis.call('HPEXPIRE', KEYS[1], refresh, 'FIELDS', 1, ARGV[1])
+    end
+    return { raw, redis.call('HTTL', KEYS[1], 'FIELDS', 1, ARGV[1])[1] }
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local separator = string.find(raw, '|', 1, true)
+local expiresAt = tonumber(string.sub(raw, 1, separator - 1))
+local value = string.sub(raw, separator + 1)
+if expiresAt > 0 and expiresAt <= now then
+    redis.call('HDEL', KEYS[1], ARGV[1])
+    return { false, -2 }
+end
+if refresh > 0 then
+    expiresAt = now + refresh
+    redis.call('HSET', KEYS[1], ARGV[1], string.format('%d', expiresAt) .. '|' .. value)
+end
+if expiresAt == 0 then
+    return { value, -1 }
+end
+return { value, math.floor((expiresAt - now + 500) / 1000) }
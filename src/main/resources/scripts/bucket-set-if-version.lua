@@ -0,0 +1,50 @@
+-- KEYS[1] = bucket, KEYS[2] = version key
+-- ARGV[1] = field, ARGV[2] = expected version (0 when never written), ARGV[3] = serialized value,
+-- ARGV[4] = ttl in seconds (0 = none), ARGV[5] = '1' for native field TTL, '0' for emulated TTL
+-- A missing field (never written, deleted or expired) is version 0 whatever the version key still holds
+-- Returns {1, new version} when written, {0, current version} otherwise
+local exists
+if ARGV[5] == '1' then
+    exists = redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1
+else
+    local raw = redis.call('HGET', KEYS[1], ARGV[1])
+    exists = false
+    if raw then
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        local expiresAt = tonumber(string.sub(raw, 1, string.find(raw, '|', 1, true) - 1))
+        exists = expiresAt == 0 or expiresAt > now
+    end
+end
+local current = 0
+if exists then
+    current = tonumber(redis.call('GET', KEYS[2]) or '0')
+end
+if current ~= tonumber(ARGV[2]) then
+    return { 0, current }
+end
+
+local version = current + 1
+local ttl = tonumber(ARGV[4])
+if ARGV[5] == '1' then
+    redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+    if ttl > 0 then
+        redis.call('HEXPIRE', KEYS[1], ttl, 'FIELDS', 1, ARGV[1])
+    else
+        redis.call('HPERSIST', KEYS[1], 'FIELDS', 1, ARGV[1])
+    end
+else
+    local expiresAt = 0
+    if ttl > 0 then
+        local time = redis.call('TIME')
+        expiresAt = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) + ttl * 1000
+    end
+    redis.call('HSET', KEYS[1], ARGV[1], string.format('%d', expiresAt) .. '|' .. ARGV[3])
+end
+
+if ttl > 0 then
+    redis.call('SET', KEYS[2], version, 'EX', ttl)
+else
+    redis.call('SET', KEYS[2], version)
+end
+return { 1, version }
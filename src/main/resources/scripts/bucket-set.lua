@@ -0,0 +1,21 @@
+-- KEYS[1] = bucket, ARGV[1] = field, ARGV[2] = value, ARGV[3] = ttl in milliseconds (0 = none)
+-- ARGV[4] = '1' for native field TTL (HEXPIRE), '0' for emulated TTL stored in front of the value
+local ttl = tonumber(ARGV[3])
+
+if ARGV[4] == '1' then
+    redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+    if ttl > 0 then
+        redis.call('HPEXPIRE', KEYS[1], ttl, 'FIELDS', 1, ARGV[1])
+    else
+        redis.call('HPERSIST', KEYS[1], 'FIELDS', 1, ARGV[1])
+    end
+    return 1
+end
+
+local expiresAt = 0
+if ttl > 0 then
+    local time = redis.call('TIME')
+    expiresAt = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) + ttl
+end
+redis.call('HSET', KEYS[1], ARGV[1], string.format('%d', expiresAt) .. '|' .. ARGV[2])
+return 1
@@ -0,0 +1,17 @@
+-- KEYS = buckets holding emulated-TTL values
+-- Removes every expired field and returns how many were removed
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local removed = 0
+for _, bucket in ipairs(KEYS) do
+    local fields = redis.call('HGETALL', bucket)
+    for i = 1, #fields, 2 do
+        local raw = fields[i + 1]
+        local expiresAt = tonumber(string.sub(raw, 1, string.find(raw, '|', 1, true) - 1))
+        if expiresAt > 0 and expiresAt <= now then
+            redis.call('HDEL', bucket, fields[i])
+            removed = removed + 1
+        end
+    end
+end
+return removed
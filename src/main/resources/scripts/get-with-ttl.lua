@@ -0,0 +1,4 @@
+-- KEYS[1] = key
+-- Returns {value or nil, ttl in seconds (-1 no expiry, -2 missing)}
+local value = redis.call('GET', KEYS[1])
+return { value, redis.call('TTL', KEYS[1]) }
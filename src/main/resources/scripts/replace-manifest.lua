@@ -0,0 +1,26 @@
+-- KEYS[1] = manifest key, KEYS[2] = chunk key prefix ('__large:{<key>}:chunk:')
+-- ARGV[1] = new id ('' to only delete), ARGV[2] = size, ARGV[3] = chunk size, ARGV[4] = chunk count,
+-- ARGV[5] = ttl in milliseconds (0 = none), ARGV[6] = ttl in milliseconds for the replaced chunks,
+-- ARGV[7] = inline value (only for values stored without chunks)
+-- Returns 1 when a previous manifest was replaced, 0 otherwise
+local old = redis.call('HMGET', KEYS[1], 'id', 'chunks')
+redis.call('DEL', KEYS[1])
+
+if ARGV[1] ~= '' then
+    redis.call('HSET', KEYS[1], 'id', ARGV[1], 'size', ARGV[2], 'chunk-size', ARGV[3], 'chunks', ARGV[4])
+    if ARGV[7] then
+        redis.call('HSET', KEYS[1], 'data', ARGV[7])
+    end
+    local ttl = tonumber(ARGV[5])
+    if ttl > 0 then
+        redis.call('PEXPIRE', KEYS[1], ttl)
+    end
+end
+
+if not old[1] then
+    return 0
+end
+for i = 0, tonumber(old[2]) - 1 do
+    redis.call('PEXPIRE', KEYS[2] .. old[1] .. ':' .. i, ARGV[6])
+end
+return 1
@@ -0,0 +1,22 @@
+-- KEYS[1] = key, KEYS[2] = version key
+-- ARGV[1] = expected version (0 when never written), ARGV[2] = serialized value, ARGV[3] = ttl in seconds (0 = none)
+-- A missing value (never written, deleted or expired) is version 0 whatever the version key still holds
+-- Returns {1, new version} when written, {0, current version} otherwise
+local current = 0
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    current = tonumber(redis.call('GET', KEYS[2]) or '0')
+end
+if current ~= tonumber(ARGV[1]) then
+    return { 0, current }
+end
+
+local version = current + 1
+local ttl = tonumber(ARGV[3])
+if ttl > 0 then
+    redis.call('SET', KEYS[1], ARGV[2], 'EX', ttl)
+    redis.call('SET', KEYS[2], version, 'EX', ttl)
+else
+    redis.call('SET', KEYS[1], ARGV[2])
+    redis.call('SET', KEYS[2], version)
+end
+return { 1, version }
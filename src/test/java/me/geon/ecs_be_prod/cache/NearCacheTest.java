@@ -0,0 +1,177 @@
+package me.geon.ecs_be_prod.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import me.geon.ecs_be_prod.service.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.redis.near-cache.enabled=true",
+        "app.redis.near-cache.invalidation=tracking"
+})
+@Testcontainers
+class NearCacheTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private NearCache nearCache;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        nearCache.evictAll();
+    }
+
+    @Test
+    void getValue_ShouldBeServedFromNearCacheAfterFirstRead() {
+        redisService.setValue("cachedKey", "cachedValue");
+
+        assertEquals("cachedValue", redisService.getValue("cachedKey"));
+
+        assertTrue(nearCache.isAvailable());
+        assertEquals("cachedValue", nearCache.get("cachedKey"));
+        assertTrue(redisService.hasKey("cachedKey"));
+    }
+
+    @Test
+    void externalWrite_ShouldInvalidateNearCacheThroughTracking() throws InterruptedException {
+        redisService.setValue("trackedKey", "before");
+        assertEquals("before", redisService.getValue("trackedKey"));
+
+        redisTemplate.opsForValue().set("trackedKey", "after");
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (nearCache.get("trackedKey") != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertNull(nearCache.get("trackedKey"));
+        assertEquals("after", redisService.getValue("trackedKey"));
+    }
+
+    @Test
+    void deleteValue_ShouldInvalidateNearCache() {
+        redisService.setValue("deletedKey", "value");
+        assertEquals("value", redisService.getValue("deletedKey"));
+
+        redisService.deleteValue("deletedKey");
+
+        assertNull(redisService.getValue("deletedKey"));
+        assertFalse(redisService.hasKey("deletedKey"));
+    }
+
+    @Test
+    void getValue_KeyWithTtl_ShouldNotBeServedAfterItExpires() throws InterruptedException {
+        redisService.setValueWithTimeout("expiringKey", "value", 1, TimeUnit.SECONDS);
+        assertEquals("value", redisService.getValue("expiringKey"));
+
+        Thread.sleep(1100);
+
+        assertNull(nearCache.get("expiringKey"));
+        assertNull(redisService.getValue("expiringKey"));
+        assertFalse(redisService.hasKey("expiringKey"));
+    }
+
+    @Test
+    void put_ShouldCapLifetimeAtRemainingTtl() throws InterruptedException {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getNearCache().setEnabled(true);
+        properties.getNearCache().setInvalidation(AppRedisProperties.InvalidationMode.PUBSUB);
+        NearCache cache = new NearCache(properties, null, new SimpleMeterRegistry());
+
+        cache.put("expiring", "value", 1, cache.stamp());
+        cache.put("persistent", "value", -1, cache.stamp());
+        cache.put("expired", "value", 0, cache.stamp());
+
+        assertEquals("value", cache.get("expiring"));
+        assertNull(cache.get("expired"));
+        Thread.sleep(700);
+        assertNull(cache.get("expiring"));
+        assertEquals("value", cache.get("persistent"));
+    }
+
+    @Test
+    void batchMessage_ShouldRoundTripKeysWithAnyCharacters() {
+        List<String> keys = List.of("user:1", "12:34", "", "line\nbreak", "키");
+
+        assertEquals(keys, NearCache.decodeKeys(NearCache.encodeKeys(keys)));
+    }
+
+    @Test
+    void evictBatch_ShouldEvictEveryKeyInTheMessage() {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getNearCache().setEnabled(true);
+        properties.getNearCache().setInvalidation(AppRedisProperties.InvalidationMode.PUBSUB);
+        NearCache cache = new NearCache(properties, null, new SimpleMeterRegistry());
+        cache.put("a", "1", -1, cache.stamp());
+        cache.put("b", "2", -1, cache.stamp());
+        cache.put("c", "3", -1, cache.stamp());
+
+        cache.evictBatch(NearCache.encodeKeys(List.of("a", "b")));
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    void constructor_TrackingWithShardNodes_ShouldFailAtStartup() {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getNearCache().setEnabled(true);
+        properties.getSharding().setNodes(List.of("localhost:6379", "localhost:6380"));
+
+        assertThrows(IllegalStateException.class,
+                () -> new NearCache(properties, null, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void constructor_WithReplicaReads_ShouldFailAtStartup() {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getNearCache().setEnabled(true);
+        properties.getNearCache().setInvalidation(AppRedisProperties.InvalidationMode.PUBSUB);
+        properties.getReplica().setReadFrom("REPLICA_PREFERRED");
+
+        assertThrows(IllegalStateException.class,
+                () -> new NearCache(properties, null, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void constructor_TrackingWithBuckets_ShouldFailAtStartup() {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getNearCache().setEnabled(true);
+        properties.getBuckets().setEnabled(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> new NearCache(properties, null, new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,99 @@
+package me.geon.ecs_be_prod.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(
+            jsonSerializer, 256, Map.of(16, Point.class));
+
+    @Test
+    void string_ShouldRoundTripWithoutClassName() {
+        byte[] bytes = serializer.serialize("value");
+
+        assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(3 + "value".length(), bytes.length);
+        assertEquals("value", serializer.deserialize(bytes));
+    }
+
+    @Test
+    void numbersAndBooleans_ShouldKeepTheirType() {
+        assertEquals(42L, serializer.deserialize(serializer.serialize(42L)));
+        assertEquals(7, serializer.deserialize(serializer.serialize(7)));
+        assertEquals(1.5d, serializer.deserialize(serializer.serialize(1.5d)));
+        assertEquals(true, serializer.deserialize(serializer.serialize(true)));
+    }
+
+    @Test
+    void mapsAndLists_ShouldRoundTripAsSmile() {
+        Map<String, Object> value = Map.of("name", "geon", "tags", List.of("a", "b"), "count", 3);
+
+        Object restored = serializer.deserialize(serializer.serialize(value));
+
+        assertEquals(value, restored);
+    }
+
+    @Test
+    void largePayload_ShouldBeCompressed() {
+        String value = "compressible-".repeat(500);
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertTrue(bytes.length < value.length() / 4);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void registeredType_ShouldUseTypeIdInsteadOfClassName() {
+        byte[] bytes = serializer.serialize(new Point(1, 2));
+
+        assertEquals(16, bytes[2] & 0xFF);
+        assertFalse(new String(bytes).contains(Point.class.getName()));
+        assertEquals(new Point(1, 2), serializer.deserialize(bytes));
+    }
+
+    @Test
+    void unregisteredType_ShouldFallBackToJson() {
+        Unregistered value = new Unregistered();
+        value.setName("json");
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertNotEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals("json", ((Unregistered) serializer.deserialize(bytes)).getName());
+    }
+
+    @Test
+    void existingJsonEntries_ShouldStillBeReadable() {
+        assertEquals("legacy", serializer.deserialize(jsonSerializer.serialize("legacy")));
+        assertEquals(Map.of("k", "v"), serializer.deserialize(jsonSerializer.serialize(Map.of("k", "v"))));
+    }
+
+    @Test
+    void typeIdOutsideUserRange_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompactRedisSerializer(jsonSerializer, 256, Map.of(3, Point.class)));
+    }
+
+    public record Point(int x, int y) {
+    }
+
+    public static class Unregistered {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package me.geon.ecs_be_prod.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EtagRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    private final EtagRedisSerializer serializer = new EtagRedisSerializer(jsonSerializer);
+
+    @Test
+    void value_ShouldRoundTripWithHashHeader() {
+        byte[] bytes = serializer.serialize("value");
+
+        assertEquals(EtagRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(EtagRedisSerializer.HEADER_SIZE, EtagRedisSerializer.payloadOffset(bytes));
+        assertArrayEquals(jsonSerializer.serialize("value"),
+                Arrays.copyOfRange(bytes, EtagRedisSerializer.HEADER_SIZE, bytes.length));
+        assertEquals("value", serializer.deserialize(bytes));
+    }
+
+    @Test
+    void tagOf_ShouldOnlyNeedTheHeader() {
+        byte[] bytes = serializer.serialize("value");
+        byte[] header = Arrays.copyOf(bytes, EtagRedisSerializer.HEADER_SIZE);
+
+        assertNotNull(EtagRedisSerializer.tagOf(bytes));
+        assertEquals(EtagRedisSerializer.tagOf(bytes), EtagRedisSerializer.tagOf(header));
+    }
+
+    @Test
+    void tagOf_ShouldChangeWithTheValue() {
+        assertNotEquals(EtagRedisSerializer.tagOf(serializer.serialize("a")),
+                EtagRedisSerializer.tagOf(serializer.serialize("b")));
+    }
+
+    @Test
+    void valueWithoutHeader_ShouldDeserializeWithoutTag() {
+        byte[] legacy = jsonSerializer.serialize("value");
+
+        assertNull(EtagRedisSerializer.tagOf(legacy));
+        assertEquals("value", serializer.deserialize(legacy));
+    }
+
+    @Test
+    void plainString_ShouldNotBeMistakenForHeader() {
+        byte[] text = "a plain string value".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(EtagRedisSerializer.tagOf(text));
+        assertEquals(0, EtagRedisSerializer.payloadOffset(text));
+    }
+
+    @Test
+    void compactValue_ShouldDecodeAfterTheHeader() {
+        EtagRedisSerializer compact = new EtagRedisSerializer(
+                new CompactRedisSerializer(jsonSerializer, 64, Map.of()));
+        String large = "compressible-".repeat(100);
+
+        assertEquals("value", compact.deserialize(compact.serialize("value")));
+        assertEquals(42L, compact.deserialize(compact.serialize(42L)));
+        assertEquals(large, compact.deserialize(compact.serialize(large)));
+        assertEquals(List.of("a", "b"), compact.deserialize(compact.serialize(List.of("a", "b"))));
+    }
+}
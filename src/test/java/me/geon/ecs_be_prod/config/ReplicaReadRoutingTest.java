@@ -0,0 +1,85 @@
+package me.geon.ecs_be_prod.config;
+
+import me.geon.ecs_be_prod.service.RedisService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a primary and a replica. The replica announces its mapped port so Lettuce's topology discovery
+ * can reach it from the host, and it accepts writes so a key that only exists there proves where reads go.
+ */
+@SpringBootTest(properties = "app.redis.replica.read-from=REPLICA")
+@Testcontainers
+class ReplicaReadRoutingTest {
+
+    static Network network = Network.newNetwork();
+
+    @Container
+    static GenericContainer<?> primary = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withNetwork(network)
+            .withNetworkAliases("primary")
+            .withExposedPorts(6379);
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withNetwork(network)
+            .withExposedPorts(6379)
+            .withCommand("redis-server", "--replica-read-only", "no")
+            .dependsOn(primary);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", primary::getHost);
+        registry.add("spring.data.redis.port", primary::getFirstMappedPort);
+    }
+
+    @BeforeAll
+    static void startReplication() throws Exception {
+        String port = String.valueOf(replica.getFirstMappedPort());
+        redisCli(replica, "CONFIG", "SET", "replica-announce-ip", replica.getHost());
+        redisCli(replica, "CONFIG", "SET", "replica-announce-port", port);
+        redisCli(replica, "REPLICAOF", "primary", "6379");
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!redisCli(primary, "INFO", "replication").contains("port=" + port + ",state=online")) {
+            assertTrue(System.currentTimeMillis() < deadline, "replica did not come online");
+            Thread.sleep(100);
+        }
+    }
+
+    @Autowired
+    private RedisService redisService;
+
+    @Test
+    void getValue_WithReplicaReadFrom_ShouldReadFromReplica() throws Exception {
+        redisCli(replica, "SET", "replicaOnly", "\"fromReplica\"");
+
+        assertEquals("fromReplica", redisService.getValue("replicaOnly"));
+        assertEquals("0", redisCli(primary, "EXISTS", "replicaOnly").trim());
+    }
+
+    @Test
+    void setValue_WithReplicaReadFrom_ShouldWriteToPrimary() throws Exception {
+        redisService.setValue("written", "value");
+
+        assertEquals("1", redisCli(primary, "EXISTS", "written").trim());
+    }
+
+    private static String redisCli(GenericContainer<?> container, String... command) throws Exception {
+        String[] arguments = new String[command.length + 1];
+        arguments[0] = "redis-cli";
+        System.arraycopy(command, 0, arguments, 1, command.length);
+        return container.execInContainer(arguments).getStdout();
+    }
+}
@@ -0,0 +1,213 @@
+package me.geon.ecs_be_prod.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.geon.ecs_be_prod.metrics.RedisMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+@Testcontainers
+class ReactiveRedisControllerIntegrationTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void setValue_ShouldSetValueSuccessfully() {
+        webTestClient.post()
+                .uri(uri -> uri.path("/api/redis/set").queryParam("key", "testKey").queryParam("value", "testValue").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Value set successfully")
+                .jsonPath("$.key").isEqualTo("testKey");
+    }
+
+    @Test
+    void getValue_ExistingKey_ShouldReturnValue() {
+        redisTemplate.opsForValue().set("existingKey", "existingValue");
+
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/get").queryParam("key", "existingKey").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.value").isEqualTo("existingValue")
+                .jsonPath("$.found").isEqualTo(true);
+    }
+
+    @Test
+    void getValue_NonExistingKey_ShouldReturnNotFound() {
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/get").queryParam("key", "nonExistingKey").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.found").isEqualTo(false)
+                .jsonPath("$.message").isEqualTo("Key not found");
+    }
+
+    @Test
+    void deleteValue_ExistingKey_ShouldDeleteSuccessfully() {
+        redisTemplate.opsForValue().set("keyToDelete", "valueToDelete");
+
+        webTestClient.delete()
+                .uri(uri -> uri.path("/api/redis/delete").queryParam("key", "keyToDelete").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deleted").isEqualTo(true)
+                .jsonPath("$.message").isEqualTo("Key deleted successfully");
+    }
+
+    @Test
+    void checkKey_ExistingKey_ShouldReturnTrue() {
+        redisTemplate.opsForValue().set("existingKeyToCheck", "value");
+
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/exists").queryParam("key", "existingKeyToCheck").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.exists").isEqualTo(true);
+    }
+
+    @Test
+    void getTimeToLive_ShouldMatchServletContract() {
+        redisTemplate.opsForValue().set("keyWithTTL", "value", 60, TimeUnit.SECONDS);
+        redisTemplate.opsForValue().set("keyWithoutTTL", "value");
+
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/ttl").queryParam("key", "keyWithTTL").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.ttl").isNumber();
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/ttl").queryParam("key", "keyWithoutTTL").build())
+                .exchange()
+                .expectBody()
+                .jsonPath("$.ttl").isEqualTo(-1)
+                .jsonPath("$.message").isEqualTo("Key exists but has no expiration");
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/ttl").queryParam("key", "missingKey").build())
+                .exchange()
+                .expectBody()
+                .jsonPath("$.ttl").isEqualTo(-2);
+    }
+
+    @Test
+    void batchEndpoints_ShouldReportPerKeyResults() {
+        webTestClient.post()
+                .uri("/api/redis/mset")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"key\": \"batch1\", \"value\": \"value1\"}, {\"key\": \"batch2\", \"value\": \"value2\", \"ttl\": 60}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(2);
+
+        webTestClient.post()
+                .uri("/api/redis/mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("batch1", "batch2", "batch3"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.found").isEqualTo(2)
+                .jsonPath("$.results[0].value").isEqualTo("value1")
+                .jsonPath("$.results[2].found").isEqualTo(false);
+
+        webTestClient.post()
+                .uri("/api/redis/mdelete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of("batch1", "batch3"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.deleted").isEqualTo(1);
+    }
+
+    @Test
+    void getValue_ShouldRecordOperationTimer() {
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/get").queryParam("key", "timedKey").build())
+                .exchange()
+                .expectStatus().isOk();
+
+        assertNotNull(meterRegistry.find(RedisMetrics.OPERATION_TIMER)
+                .tags("operation", "get", "outcome", "success").timer());
+    }
+
+    @Test
+    void servletOnlyEndpoints_ShouldNotBeServed() {
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/get-with-ttl").queryParam("key", "key").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.post()
+                .uri(uri -> uri.path("/api/redis/set-if-version").queryParam("key", "key").queryParam("value", "value")
+                        .queryParam("version", 0).build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.post()
+                .uri(uri -> uri.path("/api/redis/get-and-refresh").queryParam("key", "key").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/large").queryParam("key", "key").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/redis/watch").queryParam("keys", "key").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.post()
+                .uri("/api/redis/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"key\": \"imported\", \"value\": \"value\"}\n")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
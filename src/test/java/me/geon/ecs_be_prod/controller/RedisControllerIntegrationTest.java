@@ -5,16 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -31,6 +43,12 @@ class RedisControllerIntegrationTest {
     static void configureProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.redis.host", redis::getHost);
         registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("app.redis.large-value.threshold", () -> 8);
+        registry.add("app.redis.large-value.chunk-size", () -> 16);
+        registry.add("app.redis.large-value.pipeline-chunks", () -> 2);
+        registry.add("app.redis.watch.enabled", () -> true);
+        registry.add("app.redis.watch.configure-notifications", () -> true);
+        registry.add("app.redis.serializer.etag-header", () -> true);
     }
 
     @Autowired
@@ -93,6 +111,76 @@ class RedisControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Key not found"));
     }
 
+    @Test
+    void getValue_WithMatchingIfNoneMatch_ShouldReturnNotModifiedUntilValueChanges() throws Exception {
+        mockMvc.perform(post("/api/redis/set").param("key", "etagKey").param("value", "first"))
+                .andExpect(status().isOk());
+        String etag = mockMvc.perform(get("/api/redis/get").param("key", "etagKey"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/redis/get").param("key", "etagKey").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/redis/set").param("key", "etagKey").param("value", "second"))
+                .andExpect(status().isOk());
+        String changed = mockMvc.perform(get("/api/redis/get").param("key", "etagKey").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value("second"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+
+        mockMvc.perform(delete("/api/redis/delete").param("key", "etagKey"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/redis/get").param("key", "etagKey").header(HttpHeaders.IF_NONE_MATCH, changed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(false));
+    }
+
+    @Test
+    void getValue_StoredWithoutHash_ShouldReturnValueWithoutETag() throws Exception {
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize("legacyValue");
+        redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.stringCommands().set("legacyKey".getBytes(StandardCharsets.UTF_8), legacy));
+
+        mockMvc.perform(get("/api/redis/get").param("key", "legacyKey"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value("legacyValue"))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+        mockMvc.perform(get("/api/redis/get").param("key", "legacyKey").param("raw", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value("legacyValue"));
+    }
+
+    @Test
+    void getValue_LargeValueWithGzipAccepted_ShouldReturnCompressedBody() throws Exception {
+        String value = "compressible ".repeat(400);
+        mockMvc.perform(post("/api/redis/set").param("key", "gzipKey").param("value", value))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/api/redis/get").param("key", "gzipKey")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertTrue(body.length < value.length() / 4);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("\"value\":\"" + value + "\""));
+        }
+
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.endsWith("-gzip\""));
+        mockMvc.perform(get("/api/redis/get").param("key", "gzipKey")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void deleteValue_ExistingKey_ShouldDeleteSuccessfully() throws Exception {
         redisTemplate.opsForValue().set("keyToDelete", "valueToDelete");
@@ -175,4 +263,273 @@ class RedisControllerIntegrationTest {
                 .andExpect(jsonPath("$.ttl").value(-2))
                 .andExpect(jsonPath("$.message").value("Key does not exist"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getValues_ShouldReturnPerKeyResults() throws Exception {
+        redisTemplate.opsForValue().set("mgetKey1", "value1");
+
+        mockMvc.perform(post("/api/redis/mget")
+                .content("[\"mgetKey1\", \"mgetKey2\"]")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.found").value(1))
+                .andExpect(jsonPath("$.results[0].key").value("mgetKey1"))
+                .andExpect(jsonPath("$.results[0].value").value("value1"))
+                .andExpect(jsonPath("$.results[1].found").value(false));
+    }
+
+    @Test
+    void setValues_ShouldWriteAllEntries() throws Exception {
+        mockMvc.perform(post("/api/redis/mset")
+                .content("[{\"key\": \"msetKey1\", \"value\": \"value1\"}, {\"key\": \"msetKey2\", \"value\": \"value2\", \"ttl\": 60}]")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.results[1].key").value("msetKey2"))
+                .andExpect(jsonPath("$.results[1].success").value(true));
+    }
+
+    @Test
+    void setValues_WithNullEntry_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/redis/mset")
+                .content("[{\"key\": \"msetKey1\", \"value\": \"value1\"}, null]")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Every entry must be an object with a key"));
+
+        assertFalse(redisTemplate.hasKey("msetKey1"));
+    }
+
+    @Test
+    void deleteValues_ShouldReportDeletedKeys() throws Exception {
+        redisTemplate.opsForValue().set("mdeleteKey1", "value");
+
+        mockMvc.perform(post("/api/redis/mdelete")
+                .content("[\"mdeleteKey1\", \"mdeleteKey2\"]")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.results[0].deleted").value(true))
+                .andExpect(jsonPath("$.results[1].deleted").value(false));
+    }
+
+    @Test
+    void scan_ShouldStreamMatchingEntriesAsNdjson() throws Exception {
+        redisTemplate.opsForValue().set("scan:1", "value1");
+        redisTemplate.opsForValue().set("scan:2", "value2", 60, TimeUnit.SECONDS);
+        redisTemplate.opsForValue().set("other", "value");
+
+        MvcResult result = mockMvc.perform(get("/api/redis/scan").param("match", "scan:*"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().sorted().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"key\":\"scan:1\"") && lines.get(0).contains("\"ttl\":null"));
+        assertTrue(lines.get(1).contains("\"key\":\"scan:2\"") && lines.get(1).contains("\"value\":\"value2\""));
+    }
+
+    @Test
+    void scan_WithLargeValueStored_ShouldSkipItsManifestAndChunks() throws Exception {
+        redisTemplate.opsForValue().set("plain", "value");
+        mockMvc.perform(put("/api/redis/large")
+                .param("key", "big")
+                .content(new byte[40])
+                .contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/api/redis/scan"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"key\":\"plain\""));
+    }
+
+    @Test
+    void importNdjson_ShouldWriteRecordsAndReportFailures() throws Exception {
+        String body = """
+                {"key": "import:1", "value": "value1"}
+                {"key": "import:2", "value": {"nested": true}, "ttl": 60}
+                not json
+                {"value": "missing key"}
+                """;
+
+        mockMvc.perform(post("/api/redis/import")
+                .content(body)
+                .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records").value(4))
+                .andExpect(jsonPath("$.written").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.failures[0].line").value(3))
+                .andExpect(jsonPath("$.failures[1].line").value(4));
+
+        assertEquals("value1", redisTemplate.opsForValue().get("import:1"));
+        assertTrue(redisTemplate.getExpire("import:2") > 0);
+    }
+
+    @Test
+    void importNdjson_RepeatedKey_ShouldWriteEachRecordInOrder() throws Exception {
+        String body = """
+                {"key": "import:same", "value": "first"}
+                {"key": "import:other", "value": "other"}
+                {"key": "import:same", "value": "second"}
+                """;
+
+        mockMvc.perform(post("/api/redis/import")
+                .content(body)
+                .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records").value(3))
+                .andExpect(jsonPath("$.written").value(3))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        assertEquals("second", redisTemplate.opsForValue().get("import:same"));
+    }
+
+    @Test
+    void importCsv_ShouldSkipHeaderAndHandleQuotedFields() throws Exception {
+        String body = """
+                key,value,ttl
+                csv:1,"hello, world",
+                csv:2,plain,60
+                csv:3,bad,ttl
+                """;
+
+        mockMvc.perform(post("/api/redis/import")
+                .content(body)
+                .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.written").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.failures[0].line").value(4));
+
+        assertEquals("hello, world", redisTemplate.opsForValue().get("csv:1"));
+    }
+
+    @Test
+    void getValue_RawMode_ShouldMatchDecodedResponse() throws Exception {
+        redisTemplate.opsForValue().set("raw\"Key", "rawValue");
+
+        mockMvc.perform(get("/api/redis/get")
+                .param("key", "raw\"Key")
+                .param("raw", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.key").value("raw\"Key"))
+                .andExpect(jsonPath("$.value").value("rawValue"))
+                .andExpect(jsonPath("$.found").value(true));
+
+        mockMvc.perform(get("/api/redis/get")
+                .param("key", "missingRawKey")
+                .param("raw", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found").value(false))
+                .andExpect(jsonPath("$.message").value("Key not found"));
+    }
+
+    @Test
+    void watch_WithTooManyKeys_ShouldReturnBadRequest() throws Exception {
+        String[] keys = new String[101];
+        Arrays.setAll(keys, i -> "key" + i);
+
+        mockMvc.perform(get("/api/redis/watch").param("keys", keys))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch size exceeds limit of 100"));
+    }
+
+    @Test
+    void watch_ShouldStreamSnapshotAsServerSentEvent() throws Exception {
+        redisTemplate.opsForValue().set("watchKey", "watchValue");
+
+        MvcResult result = mockMvc.perform(get("/api/redis/watch").param("keys", "watchKey"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.getResponse().getContentAsString().contains("event:snapshot")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("event:snapshot"), body);
+        assertTrue(body.contains("\"value\":\"watchValue\""), body);
+    }
+
+    @Test
+    void largeValue_ShouldStreamChunksAndServeRanges() throws Exception {
+        byte[] value = new byte[100];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) i;
+        }
+
+        mockMvc.perform(put("/api/redis/large")
+                .param("key", "large")
+                .content(value)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(100))
+                .andExpect(jsonPath("$.chunks").value(7));
+
+        mockMvc.perform(get("/api/redis/large").param("key", "large"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().bytes(value));
+
+        mockMvc.perform(get("/api/redis/large")
+                .param("key", "large")
+                .header(HttpHeaders.RANGE, "bytes=10-40"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-40/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(value, 10, 41)));
+
+        mockMvc.perform(get("/api/redis/large")
+                .param("key", "large")
+                .header(HttpHeaders.RANGE, "bytes=200-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+    }
+
+    @Test
+    void largeValue_Replace_ShouldServeNewValueAndDelete() throws Exception {
+        mockMvc.perform(put("/api/redis/large")
+                .param("key", "replaced")
+                .content(new byte[40])
+                .contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk());
+
+        byte[] small = {1, 2, 3};
+        mockMvc.perform(put("/api/redis/large")
+                .param("key", "replaced")
+                .content(small)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chunks").value(0));
+
+        mockMvc.perform(get("/api/redis/large").param("key", "replaced"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(small));
+        assertTrue(redisTemplate.getExpire(redisTemplate.keys("__large:{replaced}:chunk:*").iterator().next()) > 0);
+
+        mockMvc.perform(delete("/api/redis/large").param("key", "replaced"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(true));
+
+        mockMvc.perform(get("/api/redis/large").param("key", "replaced"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.found").value(false));
+    }
+}
@@ -0,0 +1,106 @@
+package me.geon.ecs_be_prod.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getLimiter().setInitialLimit(initialLimit);
+        properties.getLimiter().setMinLimit(1);
+        return new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    void execute_OverLimit_ShouldRejectImmediately() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                executor.submit(() -> limiter.execute(() -> {
+                    started.countDown();
+                    await(release);
+                    return null;
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(RedisOverloadedException.class, () -> limiter.execute(() -> "rejected"));
+            assertEquals(1.0, meterRegistry.counter("redis.limiter.rejected").count());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void onSample_SteadyLatencyAtFullLoad_ShouldGrowLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(MILLI, limiter.getLimit(), false);
+        }
+
+        assertTrue(limiter.getLimit() > 20);
+        assertEquals((double) limiter.getLimit(), meterRegistry.get("redis.limiter.limit").gauge().value());
+    }
+
+    @Test
+    void onSample_LatencySpike_ShouldShrinkLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(50);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(MILLI, limiter.getLimit(), false);
+        }
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(20 * MILLI, limiter.getLimit(), false);
+        }
+
+        assertTrue(limiter.getLimit() < before / 2, "Limit " + limiter.getLimit() + " did not drop from " + before);
+    }
+
+    @Test
+    void onSample_LowUtilisation_ShouldKeepLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(40);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(MILLI, 1, false);
+        }
+
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void onSample_Dropped_ShouldBackOff() {
+        AdaptiveConcurrencyLimiter limiter = limiter(100);
+
+        limiter.onSample(0, 100, true);
+
+        assertEquals(90, limiter.getLimit());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package me.geon.ecs_be_prod.metrics;
+
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    private HotKeyTracker tracker(int capacity) {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getHotKeys().setCapacity(capacity);
+        properties.getHotKeys().setSampleRate(1.0);
+        return new HotKeyTracker(properties);
+    }
+
+    @Test
+    void top_SkewedTraffic_ShouldRankHotKeyFirst() {
+        HotKeyTracker tracker = tracker(16);
+
+        for (int i = 0; i < 10_000; i++) {
+            tracker.recordRead(i % 2 == 0 ? "hot" : "cold:" + i);
+        }
+        tracker.recordWrite("hot");
+
+        List<HotKeyTracker.HotKey> top = tracker.top(3);
+        assertEquals(3, top.size());
+        assertEquals("hot", top.get(0).key());
+        assertTrue(top.get(0).readsPerSecond() >= 5_000 / tracker.windowSeconds());
+        assertTrue(top.get(0).writesPerSecond() > 0);
+    }
+
+    @Test
+    void top_ManyDistinctKeys_ShouldStayWithinCapacity() {
+        HotKeyTracker tracker = tracker(8);
+
+        for (int i = 0; i < 100_000; i++) {
+            tracker.recordRead("key:" + i);
+        }
+
+        assertTrue(tracker.top(Integer.MAX_VALUE).size() <= 8 * new AppRedisProperties().getHotKeys().getBuckets());
+    }
+
+    @Test
+    void top_ConcurrentSkewedTraffic_ShouldCountEveryHotAccess() throws Exception {
+        HotKeyTracker tracker = tracker(256);
+        int threads = 8;
+        int perThread = 20_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        tracker.recordRead(i % 4 == 0 ? "hot" : "cold:" + (offset + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        HotKeyTracker.HotKey hot = tracker.top(1).get(0);
+        assertEquals("hot", hot.key());
+        double hotReads = threads * perThread / 4.0;
+        assertTrue(Math.round(hot.readsPerSecond() * tracker.windowSeconds()) >= hotReads);
+    }
+
+    @Test
+    void recordRead_WhenDisabled_ShouldTrackNothing() {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getHotKeys().setEnabled(false);
+        HotKeyTracker tracker = new HotKeyTracker(properties);
+
+        tracker.recordRead("key");
+
+        assertTrue(tracker.top(10).isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package me.geon.ecs_be_prod.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisTraceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void record_WhileRecording_ShouldAttributeSerializationToOperationKey() throws Exception {
+        RedisMetrics metrics = new RedisMetrics(new SimpleMeterRegistry());
+        TimedRedisSerializer serializer = new TimedRedisSerializer(RedisSerializer.java(), new SimpleMeterRegistry());
+        Path file = tempDir.resolve("redis.jfr");
+
+        byte[] encoded;
+        try (Recording recording = new Recording()) {
+            recording.enable(RedisOperationEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(RedisSerializationEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            encoded = metrics.record("set", "trace:key", () -> serializer.serialize("value"));
+            metrics.record("get", () -> null);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent set = single(events, RedisOperationEvent.NAME, "set");
+        assertThat(set.getInt("keyHash")).isEqualTo("trace:key".hashCode());
+        assertThat(set.getLong("payloadBytes")).isEqualTo(encoded.length);
+        assertThat(set.getString("outcome")).isEqualTo("success");
+        assertThat(set.getDuration("serialization").plus(set.getDuration("roundTrip")))
+                .isLessThanOrEqualTo(set.getDuration());
+
+        RecordedEvent encode = events.stream()
+                .filter(event -> event.getEventType().getName().equals(RedisSerializationEvent.NAME))
+                .findFirst().orElseThrow();
+        assertThat(encode.getString("direction")).isEqualTo("encode");
+        assertThat(encode.getInt("keyHash")).isEqualTo("trace:key".hashCode());
+
+        assertThat(single(events, RedisOperationEvent.NAME, "get").getInt("keyHash")).isZero();
+        assertThat(RedisTrace.currentKeyHash()).isZero();
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name, String operation) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .filter(event -> operation.equals(event.getString("operation")))
+                .toList();
+        assertThat(matching).hasSize(1);
+        return matching.get(0);
+    }
+}
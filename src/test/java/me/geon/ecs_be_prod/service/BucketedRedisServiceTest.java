@@ -0,0 +1,176 @@
+package me.geon.ecs_be_prod.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.ValueEncoding;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+class BucketedRedisServiceTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("app.redis.buckets.enabled", () -> true);
+        registry.add("app.redis.buckets.count", () -> 16);
+        registry.add("app.redis.buckets.ttl-mode", () -> "auto");
+    }
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private BucketStore buckets;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void nativeTtl_OnRedis7_ShouldFallBackToEmulated() {
+        assertFalse(buckets.nativeTtl());
+    }
+
+    @Test
+    void setValue_ShouldStoreKeyAsFieldOfListpackBucket() {
+        redisService.setValue("bucketKey", "value");
+
+        assertEquals("value", redisService.getValue("bucketKey"));
+        assertFalse(redisTemplate.hasKey("bucketKey"));
+        String bucket = buckets.bucketOf("bucketKey");
+        assertTrue(redisTemplate.opsForHash().hasKey(bucket, "bucketKey"));
+        ValueEncoding encoding = redisTemplate.execute((RedisCallback<ValueEncoding>) connection ->
+                connection.keyCommands().encodingOf(bucket.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("listpack", encoding.raw());
+    }
+
+    @Test
+    void setValueWithTimeout_ShouldExpireField() throws InterruptedException {
+        redisService.setValueWithTimeout("expiringKey", "value", 1, TimeUnit.SECONDS);
+
+        Long ttl = redisService.getExpire("expiringKey");
+        assertTrue(ttl > 0 && ttl <= 1);
+        Thread.sleep(1500);
+
+        assertNull(redisService.getValue("expiringKey"));
+        assertFalse(redisService.hasKey("expiringKey"));
+        assertEquals(-2L, redisService.getExpire("expiringKey"));
+    }
+
+    @Test
+    void setExpire_ShouldUpdateTtlAndMissingKeyShouldReturnFalse() {
+        redisService.setValue("persistentKey", "value");
+        assertEquals(-1L, redisService.getExpire("persistentKey"));
+
+        assertTrue(redisService.setExpire("persistentKey", 100, TimeUnit.SECONDS));
+        ValueWithTtl result = redisService.getWithTtl("persistentKey");
+
+        assertEquals("value", result.value());
+        assertTrue(result.ttl() > 90 && result.ttl() <= 100);
+        assertFalse(redisService.setExpire("missingKey", 100, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void deleteValue_ShouldRemoveFieldOnly() {
+        redisService.setValue("deleteKey", "value");
+        redisService.setValue("otherKey", "value");
+
+        assertTrue(redisService.deleteValue("deleteKey"));
+        assertFalse(redisService.deleteValue("deleteKey"));
+        assertNull(redisService.getValue("deleteKey"));
+        assertEquals("value", redisService.getValue("otherKey"));
+    }
+
+    @Test
+    void getValues_ShouldReturnValuesInRequestOrder() {
+        redisService.setValues(List.of(
+                new KeyValueEntry("a", "1", null),
+                new KeyValueEntry("b", "2", 60L)));
+
+        Map<String, Object> values = redisService.getValues(List.of("b", "missing", "a"));
+
+        assertEquals(List.of("b", "missing", "a"), new ArrayList<>(values.keySet()));
+        assertEquals("2", values.get("b"));
+        assertNull(values.get("missing"));
+        assertEquals("1", values.get("a"));
+        assertEquals(Map.of("a", true, "missing", false), redisService.deleteValues(List.of("a", "missing")));
+    }
+
+    @Test
+    void setIfVersion_ShouldOnlyWriteWhenVersionMatches() {
+        assertTrue(redisService.setIfVersion("versioned", "v1", 0, Duration.ofSeconds(60)).applied());
+
+        VersionedWrite stale = redisService.setIfVersion("versioned", "v2", 0, null);
+
+        assertFalse(stale.applied());
+        assertEquals(1, stale.version());
+        assertEquals("v1", redisService.getValue("versioned"));
+    }
+
+    @Test
+    void setIfVersion_AfterDelete_ShouldStartOverAtZero() {
+        redisService.setIfVersion("versionedDeleted", "v1", 0, Duration.ofSeconds(60));
+
+        assertTrue(redisService.deleteValue("versionedDeleted"));
+
+        assertEquals(new VersionedWrite(false, 0), redisService.setIfVersion("versionedDeleted", "stale", 1, null));
+        assertTrue(redisService.setIfVersion("versionedDeleted", "v1", 0, null).applied());
+    }
+
+    @Test
+    void scan_ShouldReturnMatchingKeysAcrossBuckets() {
+        List<KeyValueEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entries.add(new KeyValueEntry("scan:" + i, i, null));
+        }
+        entries.add(new KeyValueEntry("other", "x", null));
+        redisService.setValues(entries);
+
+        List<KeyValueEntry> scanned = new ArrayList<>();
+        redisService.scan("scan:*", 30, chunk -> {
+            assertTrue(chunk.size() <= 30);
+            scanned.addAll(chunk);
+        });
+
+        assertEquals(100, scanned.size());
+        assertTrue(scanned.stream().allMatch(entry -> entry.key().startsWith("scan:")));
+    }
+
+    @Test
+    void globPattern_ShouldFollowRedisGlobSyntax() {
+        assertTrue(BucketStore.globPattern("user:*").matcher("user:1").matches());
+        assertTrue(BucketStore.globPattern("h?llo").matcher("hello").matches());
+        assertTrue(BucketStore.globPattern("h[ae]llo").matcher("hallo").matches());
+        assertFalse(BucketStore.globPattern("h[^e]llo").matcher("hello").matches());
+        assertTrue(BucketStore.globPattern("a\\*b").matcher("a*b").matches());
+        assertFalse(BucketStore.globPattern("a.b").matcher("axb").matches());
+    }
+}
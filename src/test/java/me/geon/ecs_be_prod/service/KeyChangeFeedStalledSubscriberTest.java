@@ -0,0 +1,96 @@
+package me.geon.ecs_be_prod.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+class KeyChangeFeedStalledSubscriberTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("app.redis.watch.enabled", () -> true);
+        registry.add("app.redis.watch.configure-notifications", () -> true);
+        registry.add("app.redis.watch.debounce", () -> "50ms");
+        registry.add("app.redis.watch.heartbeat", () -> "200ms");
+        registry.add("app.redis.watch.send-timeout", () -> "300ms");
+    }
+
+    @Autowired
+    private KeyChangeFeed keyChangeFeed;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        keyChangeFeed.enableNotifications();
+    }
+
+    @Test
+    void subscribe_StalledSubscriber_ShouldBeDroppedAfterSendTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        KeyChangeFeed.Listener stalled = new KeyChangeFeed.Listener() {
+            @Override
+            public void changed(Map<String, Object> values, boolean snapshot) {
+                received.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void heartbeat() {
+            }
+        };
+        double droppedBefore = meterRegistry.counter("redis.watch.dropped").count();
+
+        try (KeyChangeFeed.Subscription ignored = keyChangeFeed.subscribe(List.of("stalled"), stalled)) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.counter("redis.watch.dropped").count() == droppedBefore
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(droppedBefore + 1, meterRegistry.counter("redis.watch.dropped").count());
+
+            release.countDown();
+            redisTemplate.opsForValue().set("stalled", "value");
+            Thread.sleep(500);
+
+            assertEquals(1, received.get());
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package me.geon.ecs_be_prod.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+class KeyChangeFeedTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("app.redis.watch.enabled", () -> true);
+        registry.add("app.redis.watch.configure-notifications", () -> true);
+        registry.add("app.redis.watch.debounce", () -> "50ms");
+    }
+
+    @Autowired
+    private KeyChangeFeed keyChangeFeed;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        keyChangeFeed.enableNotifications();
+    }
+
+    @Test
+    void subscribe_ShouldSendSnapshotThenChanges() throws Exception {
+        redisTemplate.opsForValue().set("watched", "v1");
+        RecordingListener listener = new RecordingListener();
+
+        try (KeyChangeFeed.Subscription ignored = keyChangeFeed.subscribe(List.of("watched", "missing"), listener)) {
+            Event snapshot = listener.next();
+            assertTrue(snapshot.snapshot());
+            assertEquals("v1", snapshot.values().get("watched"));
+            assertTrue(snapshot.values().containsKey("missing"));
+            assertNull(snapshot.values().get("missing"));
+
+            redisTemplate.opsForValue().set("watched", "v2");
+            Event change = listener.next();
+            assertFalse(change.snapshot());
+            assertEquals(Map.of("watched", "v2"), change.values());
+
+            redisTemplate.delete("watched");
+            Event deletion = listener.next();
+            assertTrue(deletion.values().containsKey("watched"));
+            assertNull(deletion.values().get("watched"));
+        }
+    }
+
+    @Test
+    void subscribe_RepeatedWritesWithinWindow_ShouldBeCoalesced() throws Exception {
+        RecordingListener listener = new RecordingListener();
+
+        try (KeyChangeFeed.Subscription ignored = keyChangeFeed.subscribe(List.of("counter"), listener)) {
+            listener.next();
+            for (int i = 1; i <= 50; i++) {
+                redisTemplate.opsForValue().set("counter", i);
+            }
+
+            Event last = listener.next();
+            while (!Integer.valueOf(50).equals(last.values().get("counter"))) {
+                last = listener.next();
+            }
+            assertTrue(listener.received.get() < 6, "Expected coalesced events but got " + listener.received.get());
+        }
+    }
+
+    @Test
+    void subscribe_UnchangedValue_ShouldNotSendEvent() throws Exception {
+        redisTemplate.opsForValue().set("same", "value");
+        RecordingListener listener = new RecordingListener();
+
+        try (KeyChangeFeed.Subscription ignored = keyChangeFeed.subscribe(List.of("same"), listener)) {
+            listener.next();
+            redisTemplate.opsForValue().set("same", "value");
+
+            assertNull(listener.events.poll(500, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void subscribe_WithBlockedSubscriber_ShouldStillDeliverToOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingListener blocked = new RecordingListener() {
+            @Override
+            public void changed(Map<String, Object> values, boolean snapshot) {
+                super.changed(values, snapshot);
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingListener listener = new RecordingListener();
+
+        try (KeyChangeFeed.Subscription ignoredBlocked = keyChangeFeed.subscribe(List.of("shared"), blocked);
+             KeyChangeFeed.Subscription ignored = keyChangeFeed.subscribe(List.of("shared"), listener)) {
+            blocked.next();
+            listener.next();
+
+            for (int i = 1; i <= 3; i++) {
+                redisTemplate.opsForValue().set("shared", i);
+                Event change = listener.next();
+                while (!Integer.valueOf(i).equals(change.values().get("shared"))) {
+                    change = listener.next();
+                }
+            }
+
+            release.countDown();
+            Event latest = blocked.next();
+            while (!Integer.valueOf(3).equals(latest.values().get("shared"))) {
+                latest = blocked.next();
+            }
+            assertTrue(blocked.received.get() <= 3, "Expected coalesced events but got " + blocked.received.get());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void missingFlags_ShouldTreatAAsAllEventTypes() {
+        assertEquals("", KeyChangeFeed.missingFlags("AK", "Kg$hxe"));
+        assertEquals("K", KeyChangeFeed.missingFlags("Ex", "Kx"));
+        assertEquals("Kg$", KeyChangeFeed.missingFlags("", "Kg$"));
+    }
+
+    private record Event(Map<String, Object> values, boolean snapshot) {
+    }
+
+    private static class RecordingListener implements KeyChangeFeed.Listener {
+
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        private final AtomicInteger received = new AtomicInteger();
+
+        @Override
+        public void changed(Map<String, Object> values, boolean snapshot) {
+            received.incrementAndGet();
+            events.add(new Event(new HashMap<>(values), snapshot));
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        Event next() throws InterruptedException {
+            Event event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No event within 5s");
+            return event;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -13,7 +14,13 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -241,6 +248,61 @@ class RedisServiceTest {
         assertEquals(value2, redisService.getValue(key2));
     }
 
+    @Test
+    void getValues_ShouldReturnValuesInRequestOrder() {
+        redisTemplate.opsForValue().set("batchKey1", "value1");
+        redisTemplate.opsForValue().set("batchKey3", "value3");
+
+        Map<String, Object> values = redisService.getValues(List.of("batchKey1", "batchKey2", "batchKey3"));
+
+        assertEquals(List.of("batchKey1", "batchKey2", "batchKey3"), List.copyOf(values.keySet()));
+        assertEquals("value1", values.get("batchKey1"));
+        assertNull(values.get("batchKey2"));
+        assertEquals("value3", values.get("batchKey3"));
+    }
+
+    @Test
+    void setValues_ShouldWriteEveryEntryWithOptionalTtl() {
+        Map<String, Boolean> written = redisService.setValues(List.of(
+                new KeyValueEntry("batchSet1", "value1", null),
+                new KeyValueEntry("batchSet2", "value2", 60L)));
+
+        assertTrue(written.get("batchSet1"));
+        assertTrue(written.get("batchSet2"));
+        assertEquals("value1", redisService.getValue("batchSet1"));
+        assertEquals(-1L, redisService.getExpire("batchSet1"));
+        assertTrue(redisService.getExpire("batchSet2") > 0);
+    }
+
+    @Test
+    void deleteValues_ShouldReportPerKeyResult() {
+        redisTemplate.opsForValue().set("batchDelete1", "value");
+
+        Map<String, Boolean> deleted = redisService.deleteValues(List.of("batchDelete1", "batchDelete2"));
+
+        assertTrue(deleted.get("batchDelete1"));
+        assertFalse(deleted.get("batchDelete2"));
+        assertFalse(redisService.hasKey("batchDelete1"));
+    }
+
+    @Test
+    void scan_WithNonStringKeyAmongStrings_ShouldSkipItAndDecodeTheRest() {
+        redisTemplate.opsForValue().set("mixed:1", "value1");
+        redisTemplate.opsForHash().put("mixed:2", "field", "value");
+        redisTemplate.opsForValue().set("mixed:3", new TestObject("name", 3));
+        redisTemplate.getConnectionFactory().getConnection().stringCommands()
+                .set("mixed:4".getBytes(), new byte[] {(byte) 0xff, 0x00});
+
+        List<KeyValueEntry> entries = new ArrayList<>();
+        redisService.scan("mixed:*", 100, entries::addAll);
+
+        Map<String, Object> values = new HashMap<>();
+        entries.forEach(entry -> values.put(entry.key(), entry.value()));
+        assertEquals(Set.of("mixed:1", "mixed:3"), values.keySet());
+        assertEquals("value1", values.get("mixed:1"));
+        assertInstanceOf(TestObject.class, values.get("mixed:3"));
+    }
+
     private static class TestObject {
         private String name;
         private Integer number;
@@ -281,4 +343,121 @@ class RedisServiceTest {
             return name.hashCode() + number.hashCode();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void getWithTtl_ShouldReturnValueAndTtlTogether() {
+        redisTemplate.opsForValue().set("scriptKey", "scriptValue", 60, TimeUnit.SECONDS);
+
+        ValueWithTtl result = redisService.getWithTtl("scriptKey");
+
+        assertEquals("scriptValue", result.value());
+        assertTrue(result.ttl() > 0 && result.ttl() <= 60);
+        assertEquals(-2L, redisService.getWithTtl("missingScriptKey").ttl());
+    }
+
+    @Test
+    void getWithTtl_AfterScriptFlush_ShouldReloadScript() {
+        redisTemplate.opsForValue().set("flushedScriptKey", "value");
+        redisService.getWithTtl("flushedScriptKey");
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+
+        ValueWithTtl result = redisService.getWithTtl("flushedScriptKey");
+
+        assertEquals("value", result.value());
+        assertEquals(-1L, result.ttl());
+    }
+
+    @Test
+    void setIfVersion_ShouldOnlyWriteWhenVersionMatches() {
+        VersionedWrite first = redisService.setIfVersion("casKey", "v1", 0, null);
+        VersionedWrite stale = redisService.setIfVersion("casKey", "stale", 0, null);
+        VersionedWrite second = redisService.setIfVersion("casKey", "v2", 1, Duration.ofSeconds(60));
+
+        assertEquals(new VersionedWrite(true, 1), first);
+        assertEquals(new VersionedWrite(false, 1), stale);
+        assertEquals(new VersionedWrite(true, 2), second);
+        assertEquals("v2", redisService.getValue("casKey"));
+        assertTrue(redisTemplate.getExpire("casKey") > 0);
+    }
+
+    @Test
+    void setIfVersion_AfterDelete_ShouldStartOverAtZero() {
+        redisService.setIfVersion("casDeleted", "v1", 0, null);
+        redisService.setIfVersion("casDeleted", "v2", 1, null);
+
+        assertTrue(redisService.deleteValue("casDeleted"));
+        assertFalse(redisTemplate.hasKey("casDeleted:version"));
+
+        assertEquals(new VersionedWrite(false, 0), redisService.setIfVersion("casDeleted", "stale", 2, null));
+        assertEquals(new VersionedWrite(true, 1), redisService.setIfVersion("casDeleted", "v1", 0, null));
+    }
+
+    @Test
+    void setIfVersion_WhenValueRemovedOutsideTheService_ShouldTreatItAsVersionZero() {
+        redisService.setIfVersion("casExternal", "v1", 0, null);
+        redisTemplate.delete("casExternal");
+
+        assertEquals(new VersionedWrite(true, 1), redisService.setIfVersion("casExternal", "v1", 0, null));
+    }
+
+    @Test
+    void deleteValues_ShouldRemoveVersionCounters() {
+        redisService.setIfVersion("casBatch1", "v1", 0, null);
+        redisService.setIfVersion("casBatch2", "v1", 0, null);
+
+        redisService.deleteValues(List.of("casBatch1", "casBatch2"));
+
+        assertFalse(redisTemplate.hasKey("casBatch1:version"));
+        assertFalse(redisTemplate.hasKey("casBatch2:version"));
+    }
+
+    @Test
+    void getAndRefreshExpiry_ShouldResetTtl() {
+        redisTemplate.opsForValue().set("refreshKey", "value", 10, TimeUnit.SECONDS);
+
+        Object value = redisService.getAndRefreshExpiry("refreshKey", Duration.ofSeconds(300));
+
+        assertEquals("value", value);
+        assertTrue(redisTemplate.getExpire("refreshKey") > 10);
+    }
+
+    @Test
+    void getOrCompute_ShouldCacheComputedValue() {
+        AtomicInteger loads = new AtomicInteger();
+
+        Object first = redisService.getOrCompute("computeKey", Duration.ofMinutes(10), () -> "computed-" + loads.incrementAndGet());
+        Object second = redisService.getOrCompute("computeKey", Duration.ofMinutes(10), () -> "computed-" + loads.incrementAndGet());
+
+        assertEquals("computed-1", first);
+        assertEquals("computed-1", second);
+        assertEquals(1, loads.get());
+        assertInstanceOf(CachedValue.class, redisTemplate.opsForValue().get("computeKey"));
+    }
+
+    @Test
+    void getOrCompute_NearExpiryOfExpensiveValue_ShouldRefreshEarly() {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForValue().set("earlyKey", new CachedValue("old", 60_000, now - 1), 60, TimeUnit.SECONDS);
+
+        Object value = redisService.getOrCompute("earlyKey", Duration.ofMinutes(10), () -> "new");
+
+        assertEquals("new", value);
+        assertNull(redisTemplate.opsForValue().get("earlyKey:lock"));
+    }
+
+    @Test
+    void getOrCompute_WhileAnotherNodeHoldsLock_ShouldServeStaleValue() {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForValue().set("lockedKey", new CachedValue("stale", 60_000, now - 1), 60, TimeUnit.SECONDS);
+        redisTemplate.opsForValue().set("lockedKey:lock", "other-node", 60, TimeUnit.SECONDS);
+        AtomicInteger loads = new AtomicInteger();
+
+        Object value = redisService.getOrCompute("lockedKey", Duration.ofMinutes(10), () -> "fresh-" + loads.incrementAndGet());
+
+        assertEquals("stale", value);
+        assertEquals(0, loads.get());
+    }
+}
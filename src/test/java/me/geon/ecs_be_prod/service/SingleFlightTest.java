@@ -0,0 +1,134 @@
+package me.geon.ecs_be_prod.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.geon.ecs_be_prod.config.AppRedisProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_ConcurrentCallsForSameKey_ShouldShareOneLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(new AppRedisProperties(), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("hotKey", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "value";
+                })));
+            }
+
+            while (meterRegistry.counter("redis.single-flight.collapsed").count() < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Object> result : results) {
+                assertEquals("value", result.get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_LeaderFailure_ShouldPropagateToFollowers() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(new AppRedisProperties(), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Object> leader = executor.submit(() -> singleFlight.execute("failingKey", () -> {
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            while (singleFlightInFlight() == 0) {
+                Thread.sleep(5);
+            }
+            Future<Object> follower = executor.submit(() -> singleFlight.execute("failingKey", () -> "unused"));
+            while (meterRegistry.counter("redis.single-flight.collapsed").count() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(2, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_DifferentKeyTypesWithSameName_ShouldNotShareLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(new AppRedisProperties(), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Object> other = executor.submit(() -> singleFlight.execute(new OtherCall("compute:key"), () -> {
+                await(release);
+                return "other";
+            }));
+            while (singleFlightInFlight() == 0) {
+                Thread.sleep(5);
+            }
+
+            assertEquals("own", singleFlight.execute("compute:key", () -> "own"));
+            release.countDown();
+            assertEquals("other", other.get(2, TimeUnit.SECONDS));
+            assertEquals(0, meterRegistry.counter("redis.single-flight.collapsed").count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_Disabled_ShouldAlwaysCallLoader() {
+        AppRedisProperties properties = new AppRedisProperties();
+        properties.getSingleFlight().setEnabled(false);
+        SingleFlight singleFlight = new SingleFlight(properties, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("key", loads::incrementAndGet);
+        singleFlight.execute("key", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    private double singleFlightInFlight() {
+        return meterRegistry.get("redis.single-flight.in-flight").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record OtherCall(String key) {
+    }
+}
@@ -0,0 +1,130 @@
+package me.geon.ecs_be_prod.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.redis.write-behind.enabled=true",
+        "app.redis.write-behind.flush-interval=200ms",
+        "app.redis.write-behind.flush-size=1000"
+})
+@Testcontainers
+class WriteBehindQueueTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+    }
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private WriteBehindQueue writeBehindQueue;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        awaitFlushed();
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    void setValue_ShouldBeVisibleBeforeFlushAndWrittenAfterwards() throws InterruptedException {
+        redisService.setValue("bufferedKey", "bufferedValue");
+
+        assertEquals("bufferedValue", redisService.getValue("bufferedKey"));
+        assertTrue(redisService.hasKey("bufferedKey"));
+
+        awaitFlushed();
+        assertEquals("bufferedValue", redisTemplate.opsForValue().get("bufferedKey"));
+    }
+
+    @Test
+    void setValue_RepeatedWritesInOneWindow_ShouldBeMerged() throws InterruptedException {
+        double mergedBefore = meterRegistry.counter("redis.write-behind.merged").count();
+
+        redisService.setValue("mergedKey", "first");
+        redisService.setValue("mergedKey", "second");
+        redisService.setValue("mergedKey", "third");
+
+        assertEquals("third", redisService.getValue("mergedKey"));
+        awaitFlushed();
+        assertEquals("third", redisTemplate.opsForValue().get("mergedKey"));
+        assertTrue(meterRegistry.counter("redis.write-behind.merged").count() - mergedBefore >= 1);
+    }
+
+    @Test
+    void deleteValue_ShouldDiscardPendingWrite() throws InterruptedException {
+        redisService.setValue("discardedKey", "value");
+
+        redisService.deleteValue("discardedKey");
+
+        awaitFlushed();
+        assertNull(redisService.getValue("discardedKey"));
+        assertFalse(redisTemplate.hasKey("discardedKey"));
+    }
+
+    @Test
+    void getExpire_ShouldFlushPendingWriteWithTtl() {
+        redisService.setValueWithTimeout("ttlKey", "value", 60, TimeUnit.SECONDS);
+
+        Long ttl = redisService.getExpire("ttlKey");
+
+        assertTrue(ttl > 0 && ttl <= 60);
+    }
+
+    @Test
+    void setValue_FailedFlush_ShouldBeRetried() throws InterruptedException {
+        double retriedBefore = meterRegistry.counter("redis.write-behind.retried").count();
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().setConfig("maxmemory", "1");
+        try {
+            redisService.setValue("retriedKey", "retriedValue");
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (meterRegistry.counter("redis.write-behind.retried").count() == retriedBefore
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(meterRegistry.counter("redis.write-behind.retried").count() > retriedBefore);
+            assertEquals("retriedValue", redisService.getValue("retriedKey"));
+        } finally {
+            redisTemplate.getConnectionFactory().getConnection().serverCommands().setConfig("maxmemory", "0");
+        }
+
+        awaitFlushed();
+        assertEquals("retriedValue", redisTemplate.opsForValue().get("retriedKey"));
+    }
+
+    private void awaitFlushed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writeBehindQueue.pendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, writeBehindQueue.pendingCount());
+    }
+}
@@ -0,0 +1,65 @@
+package me.geon.ecs_be_prod.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    private static ConsistentHashRing<String> ring(int nodes) {
+        Map<String, String> members = new LinkedHashMap<>();
+        for (int i = 0; i < nodes; i++) {
+            members.put("redis-" + i + ":6379", "redis-" + i);
+        }
+        return new ConsistentHashRing<>(members, 160);
+    }
+
+    @Test
+    void get_ShouldSpreadKeysEvenly() {
+        ConsistentHashRing<String> ring = ring(4);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.get("user:" + i), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - KEYS / 4) < KEYS / 4 * 0.2,
+                "Unbalanced shard with " + count + " keys"));
+    }
+
+    @Test
+    void get_AddingNode_ShouldMoveAboutOneNthOfKeys() {
+        ConsistentHashRing<String> before = ring(4);
+        ConsistentHashRing<String> after = ring(5);
+        int moved = 0;
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user:" + i;
+            String target = after.get(key);
+            if (!target.equals(before.get(key))) {
+                moved++;
+                assertEquals("redis-4", target);
+            }
+        }
+
+        assertEquals(0.2, (double) moved / KEYS, 0.05);
+    }
+
+    @Test
+    void get_KeysWithSameHashTag_ShouldShareNode() {
+        ConsistentHashRing<String> ring = ring(8);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(ring.get("{order:" + i + "}:items"), ring.get("{order:" + i + "}:total"));
+        }
+        assertEquals("plain", ConsistentHashRing.hashTag("plain"));
+        assertEquals("{}empty", ConsistentHashRing.hashTag("{}empty"));
+    }
+}
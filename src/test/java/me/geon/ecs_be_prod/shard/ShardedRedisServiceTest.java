@@ -0,0 +1,90 @@
+package me.geon.ecs_be_prod.shard;
+
+import me.geon.ecs_be_prod.service.KeyValueEntry;
+import me.geon.ecs_be_prod.service.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+class ShardedRedisServiceTest {
+
+    @Container
+    static GenericContainer<?> shard1 = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @Container
+    static GenericContainer<?> shard2 = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", shard1::getHost);
+        registry.add("spring.data.redis.port", shard1::getFirstMappedPort);
+        registry.add("app.redis.sharding.nodes", () -> shard1.getHost() + ":" + shard1.getFirstMappedPort()
+                + "," + shard2.getHost() + ":" + shard2.getFirstMappedPort());
+    }
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private RedisShards shards;
+
+    @BeforeEach
+    void setUp() {
+        shards.all().forEach(template -> template.getConnectionFactory().getConnection().serverCommands().flushAll());
+    }
+
+    @Test
+    void setValues_ShouldSpreadKeysAcrossShards() {
+        List<KeyValueEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            entries.add(new KeyValueEntry("shardKey" + i, "value" + i, null));
+        }
+
+        Map<String, Boolean> written = redisService.setValues(entries);
+
+        assertTrue(written.values().stream().allMatch(Boolean::booleanValue));
+        assertEquals(2, shards.size());
+        for (RedisTemplate<String, Object> template : shards.all()) {
+            Long size = template.getConnectionFactory().getConnection().serverCommands().dbSize();
+            assertTrue(size > 50, "Shard holds only " + size + " keys");
+        }
+        entries.forEach(entry -> assertEquals(entry.value(),
+                shards.forKey(entry.key()).opsForValue().get(entry.key())));
+    }
+
+    @Test
+    void getValues_ShouldMergeResultsFromAllShardsInRequestOrder() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            redisService.setValue("mergeKey" + i, i);
+            keys.add("mergeKey" + i);
+        }
+        keys.add("missingKey");
+
+        Map<String, Object> values = redisService.getValues(keys);
+
+        assertEquals(keys, new ArrayList<>(values.keySet()));
+        assertEquals(7, values.get("mergeKey7"));
+        assertNull(values.get("missingKey"));
+        assertEquals(Map.of("mergeKey3", true, "missingKey", false),
+                redisService.deleteValues(List.of("mergeKey3", "missingKey")));
+    }
+}